@@ -0,0 +1,42 @@
+package frc.robot.bobot_state;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One loop of {@link BobotState#periodic()}. The logger isn't running, so this measures the
+ * trackers and lookups without the cost of logging.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BobotStatePeriodicBenchmark {
+  private BobotState bobotState;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    bobotState = new BobotState();
+    BobotState.updateGlobalPose(new Pose2d(3.0, 2.5, Rotation2d.fromDegrees(60)));
+  }
+
+  @Benchmark
+  public void periodic() {
+    bobotState.periodic();
+  }
+}
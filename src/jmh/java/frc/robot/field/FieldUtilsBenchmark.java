@@ -0,0 +1,42 @@
+package frc.robot.field;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.bobot_state.BobotState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Closest reef face and HPS lookups, which run several times every loop. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldUtilsBenchmark {
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    BobotState.updateGlobalPose(new Pose2d(3.0, 2.5, Rotation2d.fromDegrees(60)));
+  }
+
+  @Benchmark
+  public ReefFace getClosestReef() {
+    return FieldUtils.getClosestReef();
+  }
+
+  @Benchmark
+  public HumanPlayerStation getClosestHPS() {
+    return FieldUtils.getClosestHPS();
+  }
+}
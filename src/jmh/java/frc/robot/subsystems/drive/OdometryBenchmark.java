@@ -0,0 +1,113 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One loop of {@link Drive#periodic()}, with a loop's worth of samples from the odometry thread.
+ *
+ * <p>Drive is built with stub IO, like in replay, and the stubs hand it the robot driving an arc at
+ * about 3 m/s. The logger isn't running and the robot is disabled, so this measures reading the
+ * modules and updating both pose estimators without the cost of logging.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OdometryBenchmark {
+  /** Samples per loop, 2 at the configured 100 Hz and more when the loop overruns. */
+  @Param({"1", "2", "5", "10"})
+  public int samples;
+
+  /** Whether yaw comes from the gyro or is integrated from the module deltas. */
+  @Param({"true", "false"})
+  public boolean gyroConnected;
+
+  private Drive drive;
+
+  private double time;
+  private double[] sampleTimestamps;
+  private double[][] sampleDrivePositions;
+  private Rotation2d[] sampleTurnPositions;
+  private Rotation2d[] sampleYaws;
+
+  /** Hands Drive this loop's samples for one module. */
+  private class ModuleIOStub implements ModuleIO {
+    private final int index;
+
+    private ModuleIOStub(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+      inputs.driveConnected = true;
+      inputs.turnConnected = true;
+      inputs.odometryTimestamps = sampleTimestamps;
+      inputs.odometryDrivePositionsRad = sampleDrivePositions[index];
+      inputs.odometryTurnPositions = sampleTurnPositions;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+
+    time = 0.0;
+    sampleTimestamps = new double[samples];
+    sampleDrivePositions = new double[4][samples];
+    sampleTurnPositions = new Rotation2d[samples];
+    sampleYaws = new Rotation2d[samples];
+
+    drive =
+        new Drive(
+            new GyroIO() {
+              @Override
+              public void updateInputs(GyroIOInputs inputs) {
+                inputs.connected = gyroConnected;
+                inputs.odometryYawTimestamps = sampleTimestamps;
+                inputs.odometryYawPositions = sampleYaws;
+              }
+            },
+            new ModuleIOStub(0),
+            new ModuleIOStub(1),
+            new ModuleIOStub(2),
+            new ModuleIOStub(3));
+  }
+
+  /** Fills in the next loop of samples, the robot driving an arc at about 3 m/s. */
+  private void nextSamples() {
+    for (int i = 0; i < samples; i++) {
+      time += 1.0 / DriveConstants.odometryFrequency;
+      sampleTimestamps[i] = time;
+      for (int module = 0; module < 4; module++) {
+        sampleDrivePositions[module][i] =
+            time * 3.0 * (1.0 + 0.05 * module) / DriveConstants.wheelRadiusMeters;
+      }
+      sampleTurnPositions[i] = Rotation2d.fromRadians(0.3 * Math.sin(time));
+      sampleYaws[i] = Rotation2d.fromRadians(0.5 * time);
+    }
+  }
+
+  @Benchmark
+  public Pose2d periodic() {
+    nextSamples();
+    drive.periodic();
+    return drive.getGlobalPose();
+  }
+}
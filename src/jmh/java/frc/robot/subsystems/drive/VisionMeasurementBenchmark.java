@@ -0,0 +1,78 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SwerveDrivePoseEstimator#addVisionMeasurement} with different amounts of odometry history.
+ * The estimator keeps 1.5 s of history, so the depth depends on the odometry frequency, and each
+ * measurement replays every sample newer than it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisionMeasurementBenchmark {
+  @Param({"50", "100", "250"})
+  public double odometryFrequency;
+
+  /** How old the measurement is, camera latency plus time in the queue. */
+  @Param({"0.02", "0.1", "0.5"})
+  public double measurementAgeSecs;
+
+  private SwerveDrivePoseEstimator poseEstimator;
+  private double latestTimestamp;
+  private Pose2d visionPose;
+
+  @Setup
+  public void setup() {
+    SwerveDriveKinematics kinematics = new SwerveDriveKinematics(DriveConstants.moduleTranslations);
+    SwerveModulePosition[] modulePositions = new SwerveModulePosition[4];
+    for (int i = 0; i < 4; i++) {
+      modulePositions[i] = new SwerveModulePosition();
+    }
+    poseEstimator =
+        new SwerveDrivePoseEstimator(kinematics, new Rotation2d(), modulePositions, new Pose2d());
+
+    // Two seconds of driving forward fills the history
+    int samples = (int) (2.0 * odometryFrequency);
+    for (int sample = 1; sample <= samples; sample++) {
+      latestTimestamp = sample / odometryFrequency;
+      for (int i = 0; i < 4; i++) {
+        modulePositions[i] = new SwerveModulePosition(latestTimestamp * 3.0, new Rotation2d());
+      }
+      poseEstimator.updateWithTime(latestTimestamp, new Rotation2d(), modulePositions);
+    }
+
+    visionPose =
+        poseEstimator
+            .getEstimatedPosition()
+            .plus(new Transform2d(0.05, -0.03, Rotation2d.fromDegrees(1.0)));
+  }
+
+  @Benchmark
+  public Pose2d addVisionMeasurement() {
+    poseEstimator.addVisionMeasurement(
+        visionPose, latestTimestamp - measurementAgeSecs, VecBuilder.fill(0.5, 0.5, 9999999));
+    return poseEstimator.getEstimatedPosition();
+  }
+}
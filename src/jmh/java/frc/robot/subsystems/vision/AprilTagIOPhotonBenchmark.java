@@ -0,0 +1,98 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.bobot_state.BobotState;
+import frc.robot.field.FieldUtils;
+import frc.robot.subsystems.vision.AprilTagIO.AprilTagIOInputs;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.photonvision.PhotonCamera;
+import org.photonvision.estimation.TargetModel;
+import org.photonvision.simulation.PhotonCameraSim;
+import org.photonvision.simulation.SimCameraProperties;
+import org.photonvision.simulation.VisionTargetSim;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Turning one pipeline result into camera inputs, including both pose estimators.
+ *
+ * <p>Results are recorded once in setup from a camera sim placed around the blue reef, with the
+ * same camera config as the first camera on the robot, and then replayed in turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AprilTagIOPhotonBenchmark {
+  private AprilTagIOPhoton io;
+  private final List<PhotonPipelineResult> results = new ArrayList<>();
+  private final AprilTagIOInputs inputs = new AprilTagIOInputs();
+  private int nextResult = 0;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    BobotState.updateGlobalPose(new Pose2d(3.0, 4.0, Rotation2d.kZero));
+
+    VisionConstants.AprilTagCameraConfig config = VisionConstants.aprilTagCamerasConfigs.get(0);
+    io =
+        new AprilTagIOPhoton(
+            config.source(),
+            FieldUtils.getReefTags(),
+            () -> BobotState.getGlobalPose().getRotation());
+
+    PhotonCameraSim cameraSim =
+        new PhotonCameraSim(
+            new PhotonCamera("Benchmark"),
+            config.simConfig().apply(new SimCameraProperties()),
+            VisionConstants.fieldLayout);
+    List<VisionTargetSim> targets = new ArrayList<>();
+    VisionConstants.fieldLayout
+        .getTags()
+        .forEach(
+            tag -> targets.add(new VisionTargetSim(tag.pose, TargetModel.kAprilTag36h11, tag.ID)));
+
+    // Face the reef from a ring of poses around it
+    for (int i = 0; i < 36; i++) {
+      double angle = Math.toRadians(i * 10.0);
+      Pose3d robotPose =
+          new Pose3d(
+              new Pose2d(
+                  4.49 - 2.0 * Math.cos(angle),
+                  4.03 - 2.0 * Math.sin(angle),
+                  Rotation2d.fromRadians(angle)));
+      PhotonPipelineResult result =
+          cameraSim.process(20.0, robotPose.plus(config.source().robotToCamera()), targets);
+      if (result.hasTargets()) {
+        results.add(result);
+      }
+    }
+    if (results.isEmpty()) {
+      throw new IllegalStateException("No recorded results see any tags");
+    }
+  }
+
+  @Benchmark
+  public AprilTagIOInputs processResult() {
+    PhotonPipelineResult result = results.get(nextResult);
+    nextResult = (nextResult + 1) % results.size();
+    io.processResults(List.of(result), inputs);
+    return inputs;
+  }
+}
@@ -0,0 +1,194 @@
+package frc.robot.util;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.util.struct.StructBuffer;
+import frc.robot.field.FieldConstants.AprilTagStruct;
+import frc.robot.subsystems.quest.TimestampedPose;
+import frc.robot.subsystems.vision.PoseObservation;
+import frc.robot.subsystems.vision.VisionConstants.PoseEstimationMethod;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.littletonrobotics.junction.LogTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Packing a loop's worth of each hand-written struct, the way AdvantageKit does when it logs them,
+ * against logging the same values field by field under their own keys.
+ *
+ * <p>Each benchmark returns how many bytes it adds to the log. A {@link PoseObservation} is 101
+ * bytes as a struct, and 104 bytes plus its method name field by field, before the field by field
+ * way also pays a record header for each of its six keys every loop. A {@link TimestampedPose} is
+ * 32 bytes and an {@link AprilTagStruct} is 60.
+ *
+ * <p>The {@code Logged} benchmarks put the same values in a {@link LogTable}, like {@code
+ * Logger.recordOutput} does, once through the hand-written structs and once as copies of the
+ * records they replaced, which AdvantageKit packs with a struct it generates through reflection.
+ * That's the cost and size this change is measured against.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggedStructBenchmark {
+  private static final int observationsPerLoop = 4;
+
+  /** {@link PoseObservation} as the record it used to be. */
+  public static record PoseObservationRecord(
+      Pose3d robotPose,
+      double timestampSeconds,
+      double ambiguity,
+      int id,
+      Matrix<N3, N1> stdDevs,
+      PoseEstimationMethod method) {}
+
+  /** {@link TimestampedPose} as the record it used to be. */
+  public static record TimestampedPoseRecord(Pose2d pose, double timestamp) {}
+
+  private final PoseObservationRecord[] observationRecords =
+      new PoseObservationRecord[observationsPerLoop];
+  private TimestampedPoseRecord timestampedPoseRecord;
+  private final LogTable table = new LogTable(0);
+
+  private final PoseObservation[] observations = new PoseObservation[observationsPerLoop];
+  private final StructBuffer<PoseObservation> observationBuffer =
+      StructBuffer.create(PoseObservation.struct);
+  private final StructBuffer<TimestampedPose> timestampedPoseBuffer =
+      StructBuffer.create(TimestampedPose.struct);
+  private final StructBuffer<AprilTagStruct> tagBuffer = StructBuffer.create(AprilTagStruct.struct);
+  private final StructBuffer<Pose3d> pose3dBuffer = StructBuffer.create(Pose3d.struct);
+
+  private TimestampedPose timestampedPose;
+  private AprilTagStruct tag;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < observationsPerLoop; i++) {
+      observations[i] =
+          new PoseObservation(
+              new Pose3d(3.0 + i * 0.01, 4.0, 0.0, new Rotation3d(0.0, 0.0, 0.5)),
+              12.34 + i * 0.02,
+              0.1,
+              17 + i,
+              VecBuilder.fill(0.3, 0.3, 0.6),
+              PoseEstimationMethod.values()[i % PoseEstimationMethod.values().length]);
+    }
+    timestampedPose = new TimestampedPose(new Pose2d(3.0, 4.0, Rotation2d.fromDegrees(30)), 12.34);
+
+    for (int i = 0; i < observationsPerLoop; i++) {
+      PoseObservation observation = observations[i];
+      observationRecords[i] =
+          new PoseObservationRecord(
+              observation.robotPose(),
+              observation.timestampSeconds(),
+              observation.ambiguity(),
+              observation.id(),
+              observation.stdDevs(),
+              observation.method());
+    }
+    timestampedPoseRecord =
+        new TimestampedPoseRecord(timestampedPose.pose(), timestampedPose.timestamp());
+    tag = new AprilTagStruct(18, new Pose3d(3.66, 4.03, 0.31, new Rotation3d(0.0, 0.0, Math.PI)));
+  }
+
+  @Benchmark
+  public int poseObservationStruct() {
+    ByteBuffer bb = observationBuffer.writeArray(observations);
+    return bb.remaining();
+  }
+
+  /** Robot poses as a struct array, and every other field as its own primitive array. */
+  @Benchmark
+  public int poseObservationFields() {
+    Pose3d[] poses = new Pose3d[observationsPerLoop];
+    double[] timestamps = new double[observationsPerLoop];
+    double[] ambiguities = new double[observationsPerLoop];
+    long[] ids = new long[observationsPerLoop];
+    double[] stdDevs = new double[observationsPerLoop * 3];
+    String[] methods = new String[observationsPerLoop];
+    for (int i = 0; i < observationsPerLoop; i++) {
+      PoseObservation observation = observations[i];
+      poses[i] = observation.robotPose();
+      timestamps[i] = observation.timestampSeconds();
+      ambiguities[i] = observation.ambiguity();
+      ids[i] = observation.id();
+      stdDevs[i * 3] = observation.stdDevs().get(0, 0);
+      stdDevs[i * 3 + 1] = observation.stdDevs().get(1, 0);
+      stdDevs[i * 3 + 2] = observation.stdDevs().get(2, 0);
+      methods[i] = observation.method().name();
+    }
+
+    int bytes = pose3dBuffer.writeArray(poses).remaining();
+    bytes += (timestamps.length + ambiguities.length + ids.length + stdDevs.length) * Double.BYTES;
+    for (String method : methods) {
+      bytes += Integer.BYTES + method.length(); // Length prefixed, like a string array entry
+    }
+    return bytes;
+  }
+
+  @Benchmark
+  public int poseObservationStructLogged() {
+    table.put("Observations", observations);
+    return table.get("Observations").getRaw().length;
+  }
+
+  @Benchmark
+  public int poseObservationRecordLogged() {
+    table.put("ObservationRecords", observationRecords);
+    return table.get("ObservationRecords").getRaw().length;
+  }
+
+  @Benchmark
+  public int timestampedPoseStructLogged() {
+    table.put("TimestampedPose", timestampedPose);
+    return table.get("TimestampedPose").getRaw().length;
+  }
+
+  @Benchmark
+  public int timestampedPoseRecordLogged() {
+    table.put("TimestampedPoseRecord", timestampedPoseRecord);
+    return table.get("TimestampedPoseRecord").getRaw().length;
+  }
+
+  @Benchmark
+  public int timestampedPoseStruct() {
+    ByteBuffer bb = timestampedPoseBuffer.write(timestampedPose);
+    return bb.remaining();
+  }
+
+  @Benchmark
+  public int aprilTagStruct() {
+    ByteBuffer bb = tagBuffer.write(tag);
+    return bb.remaining();
+  }
+
+  /** Comparing two equal observations, like checking whether one changed since the last loop. */
+  @Benchmark
+  public boolean poseObservationEquals() {
+    return observations[0].equals(
+        new PoseObservation(
+            observations[0].robotPose(),
+            observations[0].timestampSeconds(),
+            observations[0].ambiguity(),
+            observations[0].id(),
+            observations[0].stdDevs(),
+            observations[0].method()));
+  }
+}
@@ -0,0 +1,49 @@
+package frc.robot.util;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Pose offsets and errors used by alignment, against the equivalent {@code Transform2d} math. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoseUtilsBenchmark {
+  private Pose2d pose = new Pose2d(4.1, 3.2, Rotation2d.fromDegrees(-60));
+  private Pose2d target = new Pose2d(3.7, 2.9, Rotation2d.fromDegrees(-58));
+  private double parallelOffset = 0.165;
+  private double perpendicularOffset = 0.45;
+
+  @Benchmark
+  public Pose2d getOffsetPose() {
+    return PoseUtils.getOffsetPose(pose, parallelOffset, perpendicularOffset);
+  }
+
+  @Benchmark
+  public Pose2d getOffsetPoseTransform() {
+    return pose.transformBy(new Transform2d(perpendicularOffset, parallelOffset, Rotation2d.kZero));
+  }
+
+  @Benchmark
+  public double getParallelError() {
+    return PoseUtils.getParallelError(pose, target);
+  }
+
+  @Benchmark
+  public double getPerpendicularError() {
+    return PoseUtils.getPerpendicularError(pose, target);
+  }
+}
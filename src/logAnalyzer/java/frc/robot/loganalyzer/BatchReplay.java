@@ -0,0 +1,199 @@
+package frc.robot.loganalyzer;
+
+import frc.robot.loganalyzer.LogDiff.KeyErrorStats;
+import frc.robot.loganalyzer.LogDiff.Series;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Replays many logs at once, each in its own JVM, and diffs output keys between two builds.
+ *
+ * <p>Usage: {@code ./gradlew batchReplay -Plogs=<file or dir>[,...]
+ * -Pkeys=Odometry/Robot,BobotState/* [-Pbaseline=<baseline robot jar>] [-Pjobs=N]}. The candidate
+ * is the build in this checkout. Without a baseline jar, the candidate is compared against the
+ * outputs recorded on the robot.
+ *
+ * <p>Each replay runs {@code frc.robot.Main} with {@code AKIT_LOG_PATH} set to the log and {@code
+ * AKIT_REPLAY_OUTPUT} set to where the replayed log should be written, which puts {@code Robot}
+ * into replay mode.
+ */
+public class BatchReplay {
+  private static class Options {
+    List<Path> logs = new ArrayList<>();
+    List<Pattern> keys = new ArrayList<>();
+    String candidateClasspath;
+    String baselineClasspath;
+    String nativesPath = "";
+    Path workDir = Path.of("build", "batchReplay");
+    Path output;
+    int jobs = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Options options = parseArgs(args);
+    if (options.logs.isEmpty() || options.keys.isEmpty() || options.candidateClasspath == null) {
+      System.err.println(
+          "Usage: BatchReplay --candidate <classpath> [--baseline <classpath>] [--natives <dir>]"
+              + " [--jobs N] [--output <report>] --keys <glob>[,...] <log or dir>...");
+      System.exit(1);
+    }
+    Files.createDirectories(options.workDir);
+
+    long startNanos = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(options.jobs);
+    Map<Path, Future<Map<String, KeyErrorStats>>> results = new TreeMap<>();
+    for (Path log : options.logs) {
+      results.put(log, executor.submit(() -> replayAndDiff(log, options)));
+    }
+
+    Map<String, KeyErrorStats> total = new TreeMap<>();
+    int failed = 0;
+    for (Map.Entry<Path, Future<Map<String, KeyErrorStats>>> result : results.entrySet()) {
+      String logName = result.getKey().getFileName().toString();
+      try {
+        result
+            .getValue()
+            .get()
+            .forEach(
+                (key, stats) ->
+                    total.computeIfAbsent(key, k -> new KeyErrorStats()).merge(stats, logName));
+      } catch (ExecutionException e) {
+        failed++;
+        System.err.println("Failed " + logName + ": " + e.getCause().getMessage());
+      }
+    }
+    executor.shutdown();
+    double elapsedSecs = (System.nanoTime() - startNanos) / 1e9;
+
+    String report = formatReport(options, total, failed, elapsedSecs);
+    System.out.print(report);
+    if (options.output != null) {
+      Files.writeString(options.output, report);
+      System.out.println("Report written to " + options.output);
+    }
+    System.exit(failed > 0 ? 1 : 0);
+  }
+
+  private static Map<String, KeyErrorStats> replayAndDiff(Path log, Options options)
+      throws IOException, InterruptedException {
+    String name = log.getFileName().toString().replaceFirst("\\.wpilog$", "");
+
+    Path candidateLog = replay(log, options.candidateClasspath, name + "_candidate", options);
+    Map<String, Series> candidate =
+        LogDiff.readOutputs(candidateLog, LogDiff.replayOutputsPrefix, options.keys);
+
+    Map<String, Series> baseline;
+    if (options.baselineClasspath != null) {
+      Path baselineLog = replay(log, options.baselineClasspath, name + "_baseline", options);
+      baseline = LogDiff.readOutputs(baselineLog, LogDiff.replayOutputsPrefix, options.keys);
+    } else {
+      baseline = LogDiff.readOutputs(log, LogDiff.realOutputsPrefix, options.keys);
+    }
+
+    Map<String, KeyErrorStats> stats = new TreeMap<>();
+    TreeSet<String> keys = new TreeSet<>(baseline.keySet());
+    keys.addAll(candidate.keySet());
+    for (String key : keys) {
+      stats.put(key, LogDiff.compare(baseline.get(key), candidate.get(key)));
+    }
+    return stats;
+  }
+
+  /** Replays a log in a separate JVM and returns the path of the replayed log. */
+  private static Path replay(Path log, String classpath, String outputName, Options options)
+      throws IOException, InterruptedException {
+    Path output = options.workDir.resolve(outputName + ".wpilog").toAbsolutePath();
+    Path console = options.workDir.resolve(outputName + ".txt");
+    Files.deleteIfExists(output);
+
+    ProcessBuilder builder =
+        new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Djava.library.path=" + options.nativesPath,
+            "-cp",
+            classpath,
+            "frc.robot.Main");
+    builder.environment().put("AKIT_LOG_PATH", log.toAbsolutePath().toString());
+    builder.environment().put("AKIT_REPLAY_OUTPUT", output.toString());
+    builder.environment().put("LD_LIBRARY_PATH", options.nativesPath);
+    builder.environment().put("DYLD_LIBRARY_PATH", options.nativesPath);
+    builder.redirectErrorStream(true).redirectOutput(console.toFile());
+
+    int exitCode = builder.start().waitFor();
+    if (exitCode != 0 || !Files.exists(output)) {
+      throw new IOException("Replay exited with code " + exitCode + ", see " + console);
+    }
+    return output;
+  }
+
+  private static Options parseArgs(String[] args) throws IOException {
+    Options options = new Options();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--candidate" -> options.candidateClasspath = args[++i];
+        case "--baseline" -> options.baselineClasspath = args[++i];
+        case "--natives" -> options.nativesPath = args[++i];
+        case "--jobs" -> options.jobs = Integer.parseInt(args[++i]);
+        case "--work-dir" -> options.workDir = Path.of(args[++i]);
+        case "--output" -> options.output = Path.of(args[++i]);
+        case "--keys" -> {
+          for (String glob : args[++i].split(",")) {
+            options.keys.add(LogDiff.globToPattern(glob.strip()));
+          }
+        }
+        default -> options.logs.addAll(LogAnalyzer.findLogs(Path.of(args[i])));
+      }
+    }
+    if (options.baselineClasspath != null && options.baselineClasspath.isBlank()) {
+      options.baselineClasspath = null;
+    }
+    return options;
+  }
+
+  private static String formatReport(
+      Options options, Map<String, KeyErrorStats> total, int failed, double elapsedSecs) {
+    StringWriter buffer = new StringWriter();
+    PrintWriter out = new PrintWriter(buffer);
+
+    out.printf(
+        "# Batch Replay%n%n%d logs (%d failed) with %d jobs in %.1f s, baseline: %s%n%n",
+        options.logs.size(),
+        failed,
+        options.jobs,
+        elapsedSecs,
+        options.baselineClasspath != null ? options.baselineClasspath : "robot outputs");
+
+    out.println(
+        "| Key | Samples | Mean | RMS | Max | Max Rot (rad) | Mismatches | Missing | Worst Log |");
+    out.println("|---|---|---|---|---|---|---|---|---|");
+    total.forEach(
+        (key, stats) ->
+            out.printf(
+                "| %s | %d | %.4g | %.4g | %.4g | %.4g | %d | %d | %s |%n",
+                key,
+                stats.error.getCount(),
+                stats.error.getMean(),
+                stats.getRms(),
+                stats.error.getMax(),
+                stats.rotationError.getMax(),
+                stats.mismatches,
+                stats.missing,
+                stats.worstLog));
+
+    out.flush();
+    return buffer.toString();
+  }
+}
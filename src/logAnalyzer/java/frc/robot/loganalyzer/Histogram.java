@@ -0,0 +1,55 @@
+package frc.robot.loganalyzer;
+
+/**
+ * Fixed-width histogram for estimating percentiles without keeping every value. Values past the
+ * last bin are counted in it, but the true maximum is still tracked.
+ */
+public class Histogram {
+  private final double binWidth;
+  private final long[] bins;
+  private final RunningStats stats = new RunningStats();
+
+  public Histogram(double binWidth, double maxValue) {
+    this.binWidth = binWidth;
+    this.bins = new long[(int) Math.ceil(maxValue / binWidth) + 1];
+  }
+
+  public void add(double value) {
+    int bin = (int) (Math.max(value, 0.0) / binWidth);
+    bins[Math.min(bin, bins.length - 1)]++;
+    stats.add(value);
+  }
+
+  public void merge(Histogram other) {
+    for (int i = 0; i < bins.length; i++) {
+      bins[i] += other.bins[i];
+    }
+    stats.merge(other.stats);
+  }
+
+  /** Returns the number of values strictly greater than the threshold, to bin resolution. */
+  public long countAbove(double threshold) {
+    long count = 0;
+    for (int i = (int) Math.ceil(threshold / binWidth); i < bins.length; i++) {
+      count += bins[i];
+    }
+    return count;
+  }
+
+  /** Returns the upper edge of the bin containing the given percentile, from 0 to 100. */
+  public double getPercentile(double percentile) {
+    long target = (long) Math.ceil(stats.getCount() * percentile / 100.0);
+    long seen = 0;
+    for (int i = 0; i < bins.length; i++) {
+      seen += bins[i];
+      if (seen >= target && seen > 0) {
+        return Math.min((i + 1) * binWidth, stats.getMax());
+      }
+    }
+    return Double.NaN;
+  }
+
+  public RunningStats getStats() {
+    return stats;
+  }
+}
@@ -0,0 +1,197 @@
+package frc.robot.loganalyzer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Headless performance report for robot logs.
+ *
+ * <p>Usage: {@code ./gradlew analyzeLogs -Plogs=<file or directory>[,...]}. Directories are
+ * searched recursively for {@code .wpilog} files, and every log is read on its own thread. The
+ * report is printed and written to {@code build/logAnalysis/report.md}, or to the path passed with
+ * {@code --output}.
+ */
+public class LogAnalyzer {
+  public static void main(String[] args) throws IOException, InterruptedException {
+    List<Path> logs = new ArrayList<>();
+    Path output = null;
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("--output") && i + 1 < args.length) {
+        output = Path.of(args[++i]);
+      } else {
+        logs.addAll(findLogs(Path.of(args[i])));
+      }
+    }
+
+    if (logs.isEmpty()) {
+      System.err.println("No .wpilog files found, pass log files or directories as arguments");
+      System.exit(1);
+    }
+
+    long startNanos = System.nanoTime();
+    Map<Path, LogSummary> summaries = analyzeAll(logs);
+    double elapsedSecs = (System.nanoTime() - startNanos) / 1e9;
+
+    String report = formatReport(summaries, elapsedSecs);
+    System.out.print(report);
+
+    if (output != null) {
+      if (output.getParent() != null) {
+        Files.createDirectories(output.getParent());
+      }
+      Files.writeString(output, report);
+      System.out.println("Report written to " + output);
+    }
+  }
+
+  /** Returns every log at the path, searching directories recursively. */
+  public static List<Path> findLogs(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      return List.of(path);
+    }
+    try (Stream<Path> files = Files.walk(path)) {
+      return files.filter(file -> file.toString().endsWith(".wpilog")).sorted().toList();
+    }
+  }
+
+  /** Analyzes logs in parallel, one per core. Logs that fail to parse are reported and skipped. */
+  public static Map<Path, LogSummary> analyzeAll(List<Path> logs) throws InterruptedException {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      List<Future<LogSummary>> futures = new ArrayList<>();
+      for (Path log : logs) {
+        futures.add(executor.submit(() -> LogSummary.analyze(log)));
+      }
+
+      Map<Path, LogSummary> summaries = new LinkedHashMap<>();
+      for (int i = 0; i < logs.size(); i++) {
+        try {
+          summaries.put(logs.get(i), futures.get(i).get());
+        } catch (ExecutionException e) {
+          System.err.println("Skipping " + logs.get(i) + ": " + e.getCause().getMessage());
+        }
+      }
+      return summaries;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String formatReport(Map<Path, LogSummary> summaries, double elapsedSecs) {
+    LogSummary total = new LogSummary();
+    summaries.values().forEach(total::merge);
+
+    StringWriter buffer = new StringWriter();
+    PrintWriter out = new PrintWriter(buffer);
+
+    out.printf(
+        "# Log Analysis%n%n%d logs, %.1f min of robot time, analyzed in %.1f s%n%n",
+        total.logCount, total.durationSecs / 60.0, elapsedSecs);
+
+    out.println("## Per Log");
+    out.println();
+    out.println(
+        "| Log | Minutes | Loop p50 (ms) | Loop p99 (ms) | Overruns | Odometry Hz"
+            + " | Vision Poses/s | Disconnects |");
+    out.println("|---|---|---|---|---|---|---|---|");
+    summaries.forEach(
+        (path, summary) -> {
+          long disconnects = 0;
+          for (LogSummary.ConnectionStats device : summary.devices.values()) {
+            disconnects += device.disconnects;
+          }
+          long poses = 0;
+          for (LogSummary.CameraStats camera : summary.cameras.values()) {
+            poses += camera.poses;
+          }
+          out.printf(
+              "| %s | %.1f | %.1f | %.1f | %d | %.1f | %.1f | %d |%n",
+              path.getFileName(),
+              summary.durationSecs / 60.0,
+              summary.loopTimesMs.getPercentile(50),
+              summary.loopTimesMs.getPercentile(99),
+              summary.loopTimesMs.countAbove(LogSummary.loopOverrunMs),
+              1000.0 / summary.odometryPeriodMs.getMean(),
+              poses / Math.max(summary.durationSecs, 1e-6),
+              disconnects);
+        });
+    out.println();
+
+    out.println("## Loop Time");
+    out.println();
+    RunningStats loopStats = total.loopTimesMs.getStats();
+    out.printf(
+        "mean %.2f ms, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+        loopStats.getMean(),
+        total.loopTimesMs.getPercentile(50),
+        total.loopTimesMs.getPercentile(95),
+        total.loopTimesMs.getPercentile(99),
+        loopStats.getMax());
+    out.printf(
+        "%d of %d loops over %.0f ms%n%n",
+        total.loopTimesMs.countAbove(LogSummary.loopOverrunMs),
+        loopStats.getCount(),
+        LogSummary.loopOverrunMs);
+
+    out.println("## Odometry");
+    out.println();
+    out.printf(
+        "%d samples, period mean %.2f ms, std dev %.2f ms, min %.2f ms, max gap %.2f ms%n%n",
+        total.odometryPeriodMs.getCount(),
+        total.odometryPeriodMs.getMean(),
+        total.odometryPeriodMs.getStdDev(),
+        total.odometryPeriodMs.getMin(),
+        total.odometryPeriodMs.getMax());
+
+    out.println("## Estimator Corrections");
+    out.println();
+    RunningStats correctionStats = total.visionCorrectionMeters.getStats();
+    out.printf(
+        "mean %.3f m, p95 %.3f m, p99 %.3f m, max %.3f m over %d loops%n%n",
+        correctionStats.getMean(),
+        total.visionCorrectionMeters.getPercentile(95),
+        total.visionCorrectionMeters.getPercentile(99),
+        correctionStats.getMax(),
+        correctionStats.getCount());
+
+    out.println("## Cameras");
+    out.println();
+    out.println("| Camera | Frames/s | Poses/s | Disconnects | Disconnected (s) |");
+    out.println("|---|---|---|---|---|");
+    total.cameras.forEach(
+        (name, camera) ->
+            out.printf(
+                "| %s | %.1f | %.1f | %d | %.1f |%n",
+                name,
+                camera.frames / Math.max(total.durationSecs, 1e-6),
+                camera.poses / Math.max(total.durationSecs, 1e-6),
+                camera.connection.disconnects,
+                camera.connection.disconnectedSecs));
+    out.println();
+
+    out.println("## Device Faults");
+    out.println();
+    out.println("| Device | Disconnects | Disconnected (s) |");
+    out.println("|---|---|---|");
+    total.devices.forEach(
+        (name, device) ->
+            out.printf(
+                "| %s | %d | %.2f |%n", name, device.disconnects, device.disconnectedSecs));
+
+    out.flush();
+    return buffer.toString();
+  }
+}
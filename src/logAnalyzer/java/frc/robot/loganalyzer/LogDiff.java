@@ -0,0 +1,226 @@
+package frc.robot.loganalyzer;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compares output keys between two logs of the same match, e.g. the original log and a replay of
+ * it, or replays from two different builds.
+ *
+ * <p>AdvantageKit only logs values when they change, so each key is treated as a step function and
+ * compared at every timestamp where either log changed it. Poses are compared by translation
+ * distance and rotation, numbers and arrays by absolute difference, and everything else by
+ * equality.
+ */
+public class LogDiff {
+  public static final String realOutputsPrefix = "/RealOutputs/";
+  public static final String replayOutputsPrefix = "/ReplayOutputs/";
+
+  /** Every value logged to a key, in order. */
+  public static class Series {
+    public final String type;
+    private final List<Long> timestamps = new ArrayList<>();
+    private final List<double[]> values = new ArrayList<>();
+
+    private Series(String type) {
+      this.type = type;
+    }
+  }
+
+  /** Error statistics for one key, across every timestamp and log compared. */
+  public static class KeyErrorStats {
+    /** Translation distance for poses, absolute difference otherwise. */
+    public final RunningStats error = new RunningStats();
+
+    /** Rotation difference in radians, only for poses. */
+    public final RunningStats rotationError = new RunningStats();
+
+    /** Samples that could not be compared numerically and were not equal. */
+    public long mismatches = 0;
+
+    public long missing = 0;
+    public String worstLog = "";
+
+    public void merge(KeyErrorStats other, String logName) {
+      if (other.error.getMax() > error.getMax() || worstLog.isEmpty()) {
+        worstLog = logName;
+      }
+      error.merge(other.error);
+      rotationError.merge(other.rotationError);
+      mismatches += other.mismatches;
+      missing += other.missing;
+    }
+
+    /** Root mean square of the error. */
+    public double getRms() {
+      double mean = error.getMean();
+      double stdDev = error.getCount() > 1 ? error.getStdDev() : 0.0;
+      return Math.sqrt(mean * mean + stdDev * stdDev);
+    }
+  }
+
+  /**
+   * Converts a glob such as {@code BobotState/*} to a pattern. {@code *} matches any characters,
+   * including {@code /}.
+   */
+  public static Pattern globToPattern(String glob) {
+    StringBuilder regex = new StringBuilder();
+    for (String part : glob.split("\\*", -1)) {
+      if (regex.length() > 0) {
+        regex.append(".*");
+      }
+      regex.append(Pattern.quote(part));
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  /**
+   * Reads every output key matching one of the patterns.
+   *
+   * @param outputsPrefix {@link #realOutputsPrefix} or {@link #replayOutputsPrefix}
+   * @return Series by key, relative to the outputs table
+   */
+  public static Map<String, Series> readOutputs(
+      Path path, String outputsPrefix, List<Pattern> patterns) throws IOException {
+    DataLogReader reader = new DataLogReader(path.toString());
+    if (!reader.isValid()) {
+      throw new IOException("Not a valid WPILOG: " + path);
+    }
+
+    Map<Integer, Series> entries = new HashMap<>();
+    Map<String, Series> series = new TreeMap<>();
+
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        DataLogRecord.StartRecordData start = record.getStartData();
+        if (!start.name.startsWith(outputsPrefix)) {
+          continue;
+        }
+        String key = start.name.substring(outputsPrefix.length());
+        for (Pattern pattern : patterns) {
+          if (pattern.matcher(key).matches()) {
+            Series keySeries = series.computeIfAbsent(key, k -> new Series(start.type));
+            entries.put(start.entry, keySeries);
+            break;
+          }
+        }
+        continue;
+      }
+      if (record.isControl()) {
+        continue;
+      }
+
+      Series keySeries = entries.get(record.getEntry());
+      if (keySeries != null) {
+        keySeries.timestamps.add(record.getTimestamp());
+        keySeries.values.add(decode(keySeries.type, record));
+      }
+    }
+
+    return series;
+  }
+
+  /** Compares two series of the same key. */
+  public static KeyErrorStats compare(Series baseline, Series candidate) {
+    KeyErrorStats stats = new KeyErrorStats();
+    if (baseline == null || candidate == null) {
+      stats.missing++;
+      return stats;
+    }
+
+    boolean isPose = baseline.type.equals("struct:Pose2d");
+    boolean isNumeric = isPose || isNumeric(baseline.type);
+
+    int i = 0;
+    int j = 0;
+    double[] baselineValue = null;
+    double[] candidateValue = null;
+    while (i < baseline.timestamps.size() || j < candidate.timestamps.size()) {
+      long baselineTime =
+          i < baseline.timestamps.size() ? baseline.timestamps.get(i) : Long.MAX_VALUE;
+      long candidateTime =
+          j < candidate.timestamps.size() ? candidate.timestamps.get(j) : Long.MAX_VALUE;
+      long time = Math.min(baselineTime, candidateTime);
+      if (baselineTime == time) {
+        baselineValue = baseline.values.get(i++);
+      }
+      if (candidateTime == time) {
+        candidateValue = candidate.values.get(j++);
+      }
+      if (baselineValue == null || candidateValue == null) {
+        continue;
+      }
+
+      if (isPose) {
+        stats.error.add(
+            Math.hypot(baselineValue[0] - candidateValue[0], baselineValue[1] - candidateValue[1]));
+        stats.rotationError.add(
+            Math.abs(Math.IEEEremainder(baselineValue[2] - candidateValue[2], 2 * Math.PI)));
+      } else if (isNumeric && baselineValue.length == candidateValue.length) {
+        double error = 0.0;
+        for (int k = 0; k < baselineValue.length; k++) {
+          error = Math.max(error, Math.abs(baselineValue[k] - candidateValue[k]));
+        }
+        stats.error.add(error);
+      } else if (!Arrays.equals(baselineValue, candidateValue)) {
+        stats.mismatches++;
+      }
+    }
+
+    return stats;
+  }
+
+  private static boolean isNumeric(String type) {
+    return switch (type) {
+      case "double", "float", "int64", "boolean", "double[]", "float[]", "int64[]" -> true;
+      case "struct:Pose3d", "struct:Translation2d", "struct:Rotation2d" -> true;
+      default -> false;
+    };
+  }
+
+  private static double[] decode(String type, DataLogRecord record) {
+    return switch (type) {
+      case "double" -> new double[] {record.getDouble()};
+      case "float" -> new double[] {record.getFloat()};
+      case "int64" -> new double[] {record.getInteger()};
+      case "boolean" -> new double[] {record.getBoolean() ? 1.0 : 0.0};
+      case "double[]" -> record.getDoubleArray();
+      case "float[]" -> toDoubles(record.getFloatArray());
+      case "int64[]" -> Arrays.stream(record.getIntegerArray()).asDoubleStream().toArray();
+      case "struct:Pose2d", "struct:Pose3d", "struct:Translation2d", "struct:Rotation2d" -> {
+        // Pose3d is compared by translation only, its quaternion is left out
+        ByteBuffer buffer = ByteBuffer.wrap(record.getRaw()).order(ByteOrder.LITTLE_ENDIAN);
+        int count = type.equals("struct:Pose3d") ? 3 : buffer.remaining() / Double.BYTES;
+        double[] values = new double[count];
+        for (int k = 0; k < count; k++) {
+          values[k] = buffer.getDouble();
+        }
+        yield values;
+      }
+      default -> {
+        // Compared by equality only, a hash is enough
+        byte[] raw = record.getRaw();
+        yield new double[] {Arrays.hashCode(raw), raw.length};
+      }
+    };
+  }
+
+  private static double[] toDoubles(float[] floats) {
+    double[] doubles = new double[floats.length];
+    for (int i = 0; i < floats.length; i++) {
+      doubles[i] = floats[i];
+    }
+    return doubles;
+  }
+}
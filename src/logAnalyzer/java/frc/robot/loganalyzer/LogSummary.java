@@ -0,0 +1,185 @@
+package frc.robot.loganalyzer;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Performance metrics for one or more WPILOG files.
+ *
+ * <p>AdvantageKit only writes a value when it changes, so every count here is a count of changes.
+ * That is exact for timestamps and camera observations, which change every time they are logged.
+ */
+public class LogSummary {
+  /** Anything slower than the nominal loop period counts as an overrun. */
+  public static final double loopOverrunMs = 20.0;
+
+  /** Size of a packed {@code Pose3d} struct, used to count poses in a struct array. */
+  private static final int pose3dStructSize = 7 * Double.BYTES;
+
+  private static final String cameraPrefix = "/AprilTagCamera/";
+  private static final String cameraPosesSuffix = "/ValidPoses";
+  private static final String cameraConnectedSuffix = "/Connected";
+  private static final String loopTimeSuffix = "Outputs/LoggedRobot/FullCycleMS";
+  private static final String correctionSuffix = "Outputs/Odometry/VisionCorrectionMeters";
+  private static final String odometryTimestampsKey = "/Drive/Module0/OdometryTimestamps";
+  private static final String drivePrefix = "/Drive/";
+
+  /** Per device connection history, e.g. {@code Module2/TurnConnected}. */
+  public static class ConnectionStats {
+    public long disconnects = 0;
+    public double disconnectedSecs = 0.0;
+
+    private boolean connected = true;
+    private long lastChangeMicros = -1;
+
+    private void update(boolean isConnected, long timestampMicros) {
+      if (!connected && lastChangeMicros >= 0) {
+        disconnectedSecs += (timestampMicros - lastChangeMicros) / 1e6;
+      }
+      if (connected && !isConnected) {
+        disconnects++;
+      }
+      connected = isConnected;
+      lastChangeMicros = timestampMicros;
+    }
+
+    private void finish(long endMicros) {
+      update(connected, endMicros);
+    }
+
+    private void merge(ConnectionStats other) {
+      disconnects += other.disconnects;
+      disconnectedSecs += other.disconnectedSecs;
+    }
+  }
+
+  /** Per camera observation counts. */
+  public static class CameraStats {
+    public long frames = 0;
+    public long poses = 0;
+    public final ConnectionStats connection = new ConnectionStats();
+
+    private void merge(CameraStats other) {
+      frames += other.frames;
+      poses += other.poses;
+      connection.merge(other.connection);
+    }
+  }
+
+  public int logCount = 0;
+  public double durationSecs = 0.0;
+
+  public final Histogram loopTimesMs = new Histogram(0.1, 100.0);
+  public final RunningStats odometryPeriodMs = new RunningStats();
+  public final Histogram visionCorrectionMeters = new Histogram(0.005, 2.0);
+  public final Map<String, CameraStats> cameras = new TreeMap<>();
+  public final Map<String, ConnectionStats> devices = new TreeMap<>();
+
+  /** Reads a single log, streaming it once through a memory-mapped reader. */
+  public static LogSummary analyze(Path path) throws IOException {
+    DataLogReader reader = new DataLogReader(path.toString());
+    if (!reader.isValid()) {
+      throw new IOException("Not a valid WPILOG: " + path);
+    }
+
+    LogSummary summary = new LogSummary();
+    summary.logCount = 1;
+
+    Map<Integer, String> entries = new HashMap<>();
+    long firstMicros = -1;
+    long lastMicros = -1;
+    double lastOdometryTimestamp = Double.NaN;
+
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        DataLogRecord.StartRecordData start = record.getStartData();
+        entries.put(start.entry, start.name);
+        continue;
+      }
+      if (record.isControl()) {
+        continue;
+      }
+
+      String key = entries.get(record.getEntry());
+      if (key == null) {
+        continue;
+      }
+
+      long timestampMicros = record.getTimestamp();
+      if (firstMicros < 0) {
+        firstMicros = timestampMicros;
+      }
+      lastMicros = timestampMicros;
+
+      if (key.endsWith(loopTimeSuffix)) {
+        summary.loopTimesMs.add(record.getDouble());
+
+      } else if (key.equals(odometryTimestampsKey)) {
+        for (double timestamp : record.getDoubleArray()) {
+          if (!Double.isNaN(lastOdometryTimestamp)) {
+            summary.odometryPeriodMs.add((timestamp - lastOdometryTimestamp) * 1000.0);
+          }
+          lastOdometryTimestamp = timestamp;
+        }
+
+      } else if (key.endsWith(correctionSuffix)) {
+        summary.visionCorrectionMeters.add(record.getDouble());
+
+      } else if (key.startsWith(cameraPrefix) && key.endsWith(cameraPosesSuffix)) {
+        int poses = record.getSize() / pose3dStructSize;
+        if (poses > 0) {
+          CameraStats camera = summary.getCamera(key, cameraPosesSuffix);
+          camera.frames++;
+          camera.poses += poses;
+        }
+
+      } else if (key.startsWith(cameraPrefix) && key.endsWith(cameraConnectedSuffix)) {
+        summary
+            .getCamera(key, cameraConnectedSuffix)
+            .connection
+            .update(record.getBoolean(), timestampMicros);
+
+      } else if (key.startsWith(drivePrefix) && key.endsWith("Connected")) {
+        summary
+            .devices
+            .computeIfAbsent(key.substring(drivePrefix.length()), k -> new ConnectionStats())
+            .update(record.getBoolean(), timestampMicros);
+      }
+    }
+
+    if (firstMicros >= 0) {
+      summary.durationSecs = (lastMicros - firstMicros) / 1e6;
+      for (CameraStats camera : summary.cameras.values()) {
+        camera.connection.finish(lastMicros);
+      }
+      for (ConnectionStats device : summary.devices.values()) {
+        device.finish(lastMicros);
+      }
+    }
+
+    return summary;
+  }
+
+  /** Adds the metrics from another summary to this one. */
+  public void merge(LogSummary other) {
+    logCount += other.logCount;
+    durationSecs += other.durationSecs;
+    loopTimesMs.merge(other.loopTimesMs);
+    odometryPeriodMs.merge(other.odometryPeriodMs);
+    visionCorrectionMeters.merge(other.visionCorrectionMeters);
+    other.cameras.forEach(
+        (name, camera) -> cameras.computeIfAbsent(name, k -> new CameraStats()).merge(camera));
+    other.devices.forEach(
+        (name, device) -> devices.computeIfAbsent(name, k -> new ConnectionStats()).merge(device));
+  }
+
+  private CameraStats getCamera(String key, String suffix) {
+    String name = key.substring(cameraPrefix.length(), key.length() - suffix.length());
+    return cameras.computeIfAbsent(name, k -> new CameraStats());
+  }
+}
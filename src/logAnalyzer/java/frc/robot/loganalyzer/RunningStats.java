@@ -0,0 +1,62 @@
+package frc.robot.loganalyzer;
+
+/** Streaming mean, standard deviation, min and max in constant memory (Welford's algorithm). */
+public class RunningStats {
+  private long count = 0;
+  private double mean = 0.0;
+  private double m2 = 0.0;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public void add(double value) {
+    count++;
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /** Combines another set of statistics into this one, as if all values were added here. */
+  public void merge(RunningStats other) {
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      count = other.count;
+      mean = other.mean;
+      m2 = other.m2;
+      min = other.min;
+      max = other.max;
+      return;
+    }
+
+    long combinedCount = count + other.count;
+    double delta = other.mean - mean;
+    mean += delta * other.count / combinedCount;
+    m2 += other.m2 + delta * delta * count * other.count / combinedCount;
+    count = combinedCount;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMean() {
+    return count > 0 ? mean : Double.NaN;
+  }
+
+  public double getStdDev() {
+    return count > 1 ? Math.sqrt(m2 / (count - 1)) : Double.NaN;
+  }
+
+  public double getMin() {
+    return count > 0 ? min : Double.NaN;
+  }
+
+  public double getMax() {
+    return count > 0 ? max : Double.NaN;
+  }
+}
@@ -0,0 +1,261 @@
+package frc.robot.tools;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs every auto routine many times in headless sim with seeded sensor noise, and reports how the
+ * final and scoring pose errors are distributed.
+ *
+ * <p>Usage: {@code ./gradlew monteCarloAutos [-PsimAuto=<names or *>] [-Pruns=N] [-Pjobs=N]
+ * [-Pseed=N]}. Each run is its own robot process started with a different {@code simSeed}, so any
+ * run can be reproduced by seed with {@code simulateAuto}. Scoring errors are grouped by reef pole,
+ * taken from trajectory names such as {@code HPSRight-CL4-NoStop}.
+ *
+ * <p>The noise covers wheel slip, gyro drift, and camera calibration and latency error. The Quest
+ * isn't simulated, so its dropouts aren't modelled, and the report says so.
+ */
+public class MonteCarloAutos {
+  /** Second part of a trajectory name is where it ends, e.g. {@code CL4} is pole C on L4. */
+  private static final Pattern poleDestination = Pattern.compile("^[^-]+-([A-L])L([1-4])(-.*)?$");
+
+  private static class Options {
+    String classpath;
+    String nativesPath = "";
+    String autos = "*";
+    int runs = 20;
+    int jobs = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    long seed = 0;
+    Path workDir = Path.of("build", "monteCarlo");
+    Path output;
+  }
+
+  /** One line of results written by the robot's sim auto runner. */
+  private record Result(
+      String kind,
+      String auto,
+      String name,
+      boolean completed,
+      double simTimeSecs,
+      double finalErrorMeters,
+      double finalErrorRad) {
+    static Result parse(String line) {
+      String[] fields = line.split(",");
+      return new Result(
+          fields[0],
+          fields[1],
+          fields[2],
+          Boolean.parseBoolean(fields[3]),
+          Double.parseDouble(fields[4]),
+          Double.parseDouble(fields[5]),
+          Double.parseDouble(fields[6]));
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Options options = parseArgs(args);
+    if (options.classpath == null) {
+      System.err.println(
+          "Usage: MonteCarloAutos --classpath <robot classpath> [--natives <dir>] [--autos <names>]"
+              + " [--runs N] [--jobs N] [--seed N] [--output <report>]");
+      System.exit(1);
+    }
+    Files.createDirectories(options.workDir);
+
+    long startNanos = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(options.jobs);
+    List<Future<List<Result>>> futures = new ArrayList<>();
+    for (int run = 0; run < options.runs; run++) {
+      long seed = options.seed + run;
+      futures.add(executor.submit(() -> runOnce(seed, options)));
+    }
+
+    List<Result> results = new ArrayList<>();
+    int failedRuns = 0;
+    for (Future<List<Result>> future : futures) {
+      try {
+        results.addAll(future.get());
+      } catch (ExecutionException e) {
+        failedRuns++;
+        System.err.println(e.getCause().getMessage());
+      }
+    }
+    executor.shutdown();
+    double elapsedSecs = (System.nanoTime() - startNanos) / 1e9;
+
+    String report = formatReport(options, results, failedRuns, elapsedSecs);
+    System.out.print(report);
+    if (options.output != null) {
+      Files.writeString(options.output, report);
+      System.out.println("Report written to " + options.output);
+    }
+  }
+
+  /** Runs every selected routine once with the given seed. */
+  private static List<Result> runOnce(long seed, Options options)
+      throws IOException, InterruptedException {
+    Path results = options.workDir.resolve("seed" + seed + ".csv").toAbsolutePath();
+    Path console = options.workDir.resolve("seed" + seed + ".txt");
+    Files.deleteIfExists(results);
+
+    ProcessBuilder builder =
+        new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Djava.library.path=" + options.nativesPath,
+            "-DsimAuto=" + options.autos,
+            "-DsimSeed=" + seed,
+            "-DsimAutoResults=" + results,
+            "-cp",
+            options.classpath,
+            "frc.robot.Main");
+    builder.environment().put("LD_LIBRARY_PATH", options.nativesPath);
+    builder.environment().put("DYLD_LIBRARY_PATH", options.nativesPath);
+    builder.redirectErrorStream(true).redirectOutput(console.toFile());
+
+    // A nonzero exit only means a routine timed out, which shows up in the results
+    builder.start().waitFor();
+    if (!Files.exists(results)) {
+      throw new IOException("Seed " + seed + " produced no results, see " + console);
+    }
+
+    List<String> lines = Files.readAllLines(results);
+    return lines.stream().skip(1).filter(line -> !line.isBlank()).map(Result::parse).toList();
+  }
+
+  private static Options parseArgs(String[] args) {
+    Options options = new Options();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--classpath" -> options.classpath = args[++i];
+        case "--natives" -> options.nativesPath = args[++i];
+        case "--autos" -> options.autos = args[++i];
+        case "--runs" -> options.runs = Integer.parseInt(args[++i]);
+        case "--jobs" -> options.jobs = Integer.parseInt(args[++i]);
+        case "--seed" -> options.seed = Long.parseLong(args[++i]);
+        case "--work-dir" -> options.workDir = Path.of(args[++i]);
+        case "--output" -> options.output = Path.of(args[++i]);
+        default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+    return options;
+  }
+
+  private static String formatReport(
+      Options options, List<Result> results, int failedRuns, double elapsedSecs) {
+    Map<String, List<Result>> byAuto = new TreeMap<>();
+    Map<String, List<Result>> byPole = new TreeMap<>();
+    for (Result result : results) {
+      if (result.kind().equals("auto")) {
+        byAuto.computeIfAbsent(result.auto(), k -> new ArrayList<>()).add(result);
+      } else {
+        Matcher matcher = poleDestination.matcher(result.name());
+        if (matcher.matches()) {
+          String pole = matcher.group(1) + " L" + matcher.group(2);
+          byPole.computeIfAbsent(pole, k -> new ArrayList<>()).add(result);
+        }
+      }
+    }
+
+    StringWriter buffer = new StringWriter();
+    PrintWriter out = new PrintWriter(buffer);
+
+    out.printf(
+        "# Monte Carlo Autos%n%n%d runs (%d failed) from seed %d with %d jobs in %.1f s%n%n",
+        options.runs, failedRuns, options.seed, options.jobs, elapsedSecs);
+    out.println(
+        "Noise: wheel slip, gyro drift, and camera calibration and latency error. The Quest isn't"
+            + " simulated, so Quest dropouts aren't modelled.");
+    out.println();
+
+    out.println("## Routines");
+    out.println();
+    out.println("Most fragile first, by 95th percentile final error.");
+    out.println();
+    out.println(
+        "| Routine | Runs | Completed | Time p50 (s) | Final Error p50 (m) | p95 (m) | Max (m)"
+            + " | Max Rot (deg) |");
+    out.println("|---|---|---|---|---|---|---|---|");
+    byAuto.entrySet().stream()
+        .sorted(
+            Comparator.comparingDouble(
+                    (Map.Entry<String, List<Result>> entry) -> -finalErrorP95(entry.getValue()))
+                .thenComparing(Map.Entry::getKey))
+        .forEach(entry -> printRow(out, entry.getKey(), entry.getValue()));
+    out.println();
+
+    out.println("## Scoring Poses");
+    out.println();
+    out.println(
+        "| Pole | Segments | Completed | Time p50 (s) | Error p50 (m) | p95 (m) | Max (m)"
+            + " | Max Rot (deg) |");
+    out.println("|---|---|---|---|---|---|---|---|");
+    byPole.forEach((pole, segments) -> printRow(out, pole, segments));
+
+    out.flush();
+    return buffer.toString();
+  }
+
+  private static void printRow(PrintWriter out, String name, List<Result> results) {
+    List<Double> errors = new ArrayList<>();
+    List<Double> times = new ArrayList<>();
+    double maxRotation = 0.0;
+    int completed = 0;
+    for (Result result : results) {
+      if (!Double.isNaN(result.finalErrorMeters())) {
+        errors.add(result.finalErrorMeters());
+        maxRotation = Math.max(maxRotation, result.finalErrorRad());
+      }
+      times.add(result.simTimeSecs());
+      completed += result.completed() ? 1 : 0;
+    }
+    Collections.sort(errors);
+    Collections.sort(times);
+
+    out.printf(
+        "| %s | %d | %.0f%% | %.2f | %.3f | %.3f | %.3f | %.1f |%n",
+        name,
+        results.size(),
+        100.0 * completed / results.size(),
+        percentile(times, 50),
+        percentile(errors, 50),
+        percentile(errors, 95),
+        percentile(errors, 100),
+        Math.toDegrees(maxRotation));
+  }
+
+  private static double finalErrorP95(List<Result> results) {
+    List<Double> errors = new ArrayList<>();
+    for (Result result : results) {
+      // Routines that never got a final error sort first
+      errors.add(
+          Double.isNaN(result.finalErrorMeters())
+              ? Double.POSITIVE_INFINITY
+              : result.finalErrorMeters());
+    }
+    Collections.sort(errors);
+    return percentile(errors, 95);
+  }
+
+  private static double percentile(List<Double> sorted, double percentile) {
+    if (sorted.isEmpty()) {
+      return Double.NaN;
+    }
+    int index = (int) Math.ceil(sorted.size() * percentile / 100.0) - 1;
+    return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+  }
+}
@@ -0,0 +1,135 @@
+package frc.robot.tools;
+
+import choreo.trajectory.EventMarker;
+import choreo.trajectory.SwerveSample;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import frc.robot.util.TrajectoryFile;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compiles every Choreo {@code .traj} in a directory to a {@link TrajectoryFile}.
+ *
+ * <p>Usage: {@code ./gradlew compileChoreoTrajectories}, which also runs before building the robot
+ * jar. Only swerve trajectories and named events are supported, like the rest of the robot code.
+ *
+ * <p>A file that doesn't compile is reported and skipped rather than failing the build, so the
+ * robot still deploys. {@link frc.robot.util.TrajectoryCache} falls back to the JSON for it, and
+ * lists it as failed if that doesn't load either.
+ */
+public class TrajectoryCompiler {
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: TrajectoryCompiler <choreo directory> <output directory>");
+      System.exit(1);
+    }
+    Path inputDir = Path.of(args[0]);
+    Path outputDir = Path.of(args[1]);
+    Files.createDirectories(outputDir);
+
+    List<Path> sources;
+    try (Stream<Path> files = Files.list(inputDir)) {
+      sources = files.filter(file -> file.toString().endsWith(".traj")).sorted().toList();
+    }
+
+    long jsonBytes = 0;
+    long compiledBytes = 0;
+    List<String> skipped = new ArrayList<>();
+    for (Path source : sources) {
+      String fileName = source.getFileName().toString();
+      String name = fileName.substring(0, fileName.length() - ".traj".length());
+      Path output = outputDir.resolve(name + TrajectoryFile.extension);
+      try {
+        compile(source, output);
+        jsonBytes += Files.size(source);
+        compiledBytes += Files.size(output);
+      } catch (IOException | RuntimeException e) {
+        System.err.println("Skipping " + fileName + ": " + e.getMessage());
+        skipped.add(name);
+      }
+    }
+
+    System.out.printf(
+        "Compiled %d trajectories, %d KB of JSON to %d KB%n",
+        sources.size() - skipped.size(), jsonBytes / 1024, compiledBytes / 1024);
+    if (!skipped.isEmpty()) {
+      System.err.println("Didn't compile " + String.join(", ", skipped));
+    }
+  }
+
+  private static void compile(Path source, Path output) throws IOException {
+    JsonObject json;
+    try (Reader reader = Files.newBufferedReader(source)) {
+      // Lenient, like Choreo's own loader
+      json = JsonParser.parseReader(reader).getAsJsonObject();
+    }
+
+    JsonObject trajectory = json.getAsJsonObject("trajectory");
+    String sampleType = trajectory.get("sampleType").getAsString();
+    if (!sampleType.equals("Swerve")) {
+      throw new IOException("Only swerve trajectories are supported, not " + sampleType);
+    }
+
+    List<SwerveSample> samples = new ArrayList<>();
+    for (JsonElement element : trajectory.getAsJsonArray("samples")) {
+      JsonObject sample = element.getAsJsonObject();
+      samples.add(
+          new SwerveSample(
+              sample.get("t").getAsDouble(),
+              sample.get("x").getAsDouble(),
+              sample.get("y").getAsDouble(),
+              sample.get("heading").getAsDouble(),
+              sample.get("vx").getAsDouble(),
+              sample.get("vy").getAsDouble(),
+              sample.get("omega").getAsDouble(),
+              sample.get("ax").getAsDouble(),
+              sample.get("ay").getAsDouble(),
+              sample.get("alpha").getAsDouble(),
+              toDoubles(sample.getAsJsonArray("fx")),
+              toDoubles(sample.getAsJsonArray("fy"))));
+    }
+
+    List<Integer> splits = new ArrayList<>();
+    if (trajectory.has("splits")) {
+      for (JsonElement split : trajectory.getAsJsonArray("splits")) {
+        splits.add(split.getAsInt());
+      }
+    }
+
+    List<EventMarker> events = new ArrayList<>();
+    if (json.has("events")) {
+      for (JsonElement element : json.getAsJsonArray("events")) {
+        JsonObject from = element.getAsJsonObject().getAsJsonObject("from");
+        JsonObject event = element.getAsJsonObject().getAsJsonObject("event");
+        if (!from.has("targetTimestamp")
+            || from.get("targetTimestamp").isJsonNull()
+            || !event.get("type").getAsString().equals("named")) {
+          continue; // Not attached to a waypoint, or not a command the robot can bind
+        }
+        double timestamp =
+            from.get("targetTimestamp").getAsDouble()
+                + from.getAsJsonObject("offset").get("val").getAsDouble();
+        events.add(
+            new EventMarker(timestamp, event.getAsJsonObject("data").get("name").getAsString()));
+      }
+    }
+
+    TrajectoryFile.write(output, samples, splits, events);
+  }
+
+  private static double[] toDoubles(JsonArray array) {
+    double[] values = new double[array.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = array.get(i).getAsDouble();
+    }
+    return values;
+  }
+}
@@ -14,6 +14,8 @@
 package frc.robot;
 
 import edu.wpi.first.wpilibj.RobotBase;
+import frc.robot.util.LogVerbosity;
+import java.util.List;
 
 /**
  * This class defines the runtime mode used by AdvantageKit. The mode is always "real" when running
@@ -28,7 +30,27 @@ public final class Constants {
     GYARADOS,
   }
 
-  public static final Mode simMode = Mode.SIM;
+  /**
+   * Where to write the replayed log, set by the batch replay tool. When set, the sim always replays
+   * the log at {@code AKIT_LOG_PATH} regardless of {@link #simMode}.
+   */
+  public static final String replayOutputPath = System.getenv("AKIT_REPLAY_OUTPUT");
+
+  public static final Mode simMode = replayOutputPath != null ? Mode.REPLAY : Mode.SIM;
+
+  /**
+   * Auto routines to run headless and faster than real time in sim, comma separated or {@code *}
+   * for all. Set with {@code ./gradlew simulateAuto -PsimAuto=...}.
+   */
+  public static final String simAuto = System.getProperty("simAuto");
+
+  /**
+   * How much detail the camera sims in {@link frc.robot.subsystems.vision.Vision} render, override
+   * with {@code -DsimFidelity=FULL}, or {@code -PsimFidelity=FULL} for {@code simulateAuto}.
+   */
+  public static final SimFidelity simFidelity =
+      SimFidelity.valueOf(System.getProperty("simFidelity", SimFidelity.FAST.name()));
+
   public static final Mode currentMode = RobotBase.isReal() ? Mode.REAL : simMode;
 
   public static final DriverControl driverControl = DriverControl.FREE;
@@ -44,6 +66,14 @@ public final class Constants {
     REPLAY
   }
 
+  public static enum SimFidelity {
+    /** Low resolution camera sims without rendering, updated only when a frame is due. */
+    FAST,
+
+    /** Full resolution camera sims with wireframe rendering, for visual debugging. */
+    FULL
+  }
+
   public static enum DriverControl {
     /** Auto-align to closest goal */
     ALIGN,
@@ -52,11 +82,53 @@ public final class Constants {
     FREE
   }
 
+  /**
+   * Log verbosity used on the real robot when no FMS is attached. Matches always log with {@link
+   * LogVerbosity.Profile#COMPETITION}; sim and replay always log with {@link
+   * LogVerbosity.Profile#DEBUG}.
+   */
+  public static final LogVerbosity.Profile logVerbosity = LogVerbosity.Profile.PRACTICE;
+
+  /** How often the real robot publishes dashboard keys over NetworkTables. */
+  public static final double dashboardPublishPeriodSecs = 0.1;
+
+  /**
+   * Log keys the real robot publishes over NetworkTables, used by the layouts in {@code
+   * dashboards/}. Everything else is only written to the log file, so a key added to a layout needs
+   * its prefix here too. Prefixes nothing logs right now cost nothing.
+   */
+  public static final List<String> dashboardKeys =
+      List.of(
+          "/RealMetadata/",
+          "/AprilTagCamera/FrontLeft/Connected",
+          "/AprilTagCamera/FrontRight/Connected",
+          "/AprilTagCamera/RearLeft/Connected",
+          "/AprilTagCamera/RearRight/Connected",
+          "/Oculus/Connected",
+          "/Oculus/Pose",
+          "/Drive/Gyro/",
+          "/Climber/",
+          "/RealOutputs/Alerts/",
+          "/RealOutputs/BobotState/ClimberMode",
+          "/RealOutputs/BobotState/CurrentAlignment/",
+          "/RealOutputs/ChoreoWaypoints/",
+          "/RealOutputs/Climber/",
+          "/RealOutputs/Commands/DriveToPoseCommand/",
+          "/RealOutputs/Faces/",
+          "/RealOutputs/Odometry/Robot",
+          "/RealOutputs/Oculus/",
+          "/RealOutputs/Quest/FieldToRobot",
+          "/RealOutputs/QuestCalibration/");
+
   public static final double loopPeriodSecs = Robot.defaultPeriodSecs;
 
   public static final double phoenixUpdateFreqHz = 50.0;
   public static final String alternateCanBus = isGuido ? "rio" : "SUSBus";
 
   public static final double controllerDeadband = 0.15;
+
+  // How fast teleop drive input can change, in fractions of full speed per second
+  public static final double teleopLinearSlewRate = 4.0;
+  public static final double teleopAngularSlewRate = 8.0;
   public static final double triggerPressedThreshold = 0.1;
 }
@@ -17,7 +17,16 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Threads;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.subsystems.drive.SparkOdometryThread;
+import frc.robot.subsystems.drive.SwerveChassisSim;
 import frc.robot.subsystems.vision.VisionConstants;
+import frc.robot.util.DashboardPublisher;
+import frc.robot.util.DeviceConfigurator;
+import frc.robot.util.JitWarmup;
+import frc.robot.util.LogVerbosity;
+import frc.robot.util.PathGenerator;
+import frc.robot.util.SimAutoRunner;
+import frc.robot.util.TrajectoryCache;
 import frc.robot.util.VirtualSubsystem;
 import org.littletonrobotics.junction.LogFileUtil;
 import org.littletonrobotics.junction.LoggedRobot;
@@ -36,6 +45,7 @@ import org.littletonrobotics.urcl.URCL;
 public class Robot extends LoggedRobot {
   private Command autonomousCommand;
   private RobotContainer robotContainer;
+  private JitWarmup jitWarmup = null;
 
   public Robot() {
     // Record metadata
@@ -59,14 +69,22 @@ public class Robot extends LoggedRobot {
     // Set up data receivers & replay source
     switch (Constants.currentMode) {
       case REAL:
-        // Running on a real robot, log to a USB stick ("/U/logs")
+        // Running on a real robot, log to a USB stick ("/U/logs") and only publish what the
+        // dashboards need to NT
         Logger.addDataReceiver(new WPILOGWriter());
-        Logger.addDataReceiver(new NT4Publisher());
+        Logger.addDataReceiver(
+            new DashboardPublisher(Constants.dashboardPublishPeriodSecs, Constants.dashboardKeys));
         break;
 
       case SIM:
-        // Running a physics simulator, log to NT
-        Logger.addDataReceiver(new NT4Publisher());
+        Logger.recordMetadata("SimFidelity", Constants.simFidelity.name());
+
+        // Running a physics simulator, log to NT unless running headless
+        if (Constants.simAuto == null) {
+          Logger.addDataReceiver(new NT4Publisher());
+        } else {
+          setUseTiming(false); // Run as fast as possible
+        }
         break;
 
       case REPLAY:
@@ -74,10 +92,17 @@ public class Robot extends LoggedRobot {
         setUseTiming(false); // Run as fast as possible
         String logPath = LogFileUtil.findReplayLog();
         Logger.setReplaySource(new WPILOGReader(logPath));
-        Logger.addDataReceiver(new WPILOGWriter(LogFileUtil.addPathSuffix(logPath, "_sim")));
+        Logger.addDataReceiver(
+            new WPILOGWriter(
+                Constants.replayOutputPath != null
+                    ? Constants.replayOutputPath
+                    : LogFileUtil.addPathSuffix(logPath, "_sim")));
         break;
     }
 
+    // Record which keys are decimated under each verbosity profile, and measure log size
+    Logger.addDataReceiver(LogVerbosity.recordMetadata());
+
     DriverStation.silenceJoystickConnectionWarning(true);
 
     // Initialize URCL
@@ -86,9 +111,31 @@ public class Robot extends LoggedRobot {
     // Start AdvantageKit logger
     Logger.start();
 
+    // Start parsing auto trajectories in the background
+    TrajectoryCache.getInstance();
+
+    // Precompute profiles for trajectories made on the fly
+    PathGenerator.getInstance();
+
     // Instantiate our RobotContainer. This will perform all our button bindings,
     // and put our autonomous chooser on the dashboard.
     robotContainer = new RobotContainer();
+
+    // Finish configuring any motor controllers the subsystems started on, then start reading the
+    // drive's odometry from them
+    DeviceConfigurator.getInstance().awaitAll();
+    SparkOdometryThread.getInstance().start();
+
+    if (Constants.currentMode == Constants.Mode.SIM && Constants.simAuto != null) {
+      new SimAutoRunner(
+          robotContainer, Constants.simAuto, SwerveChassisSim.getInstance()::getPose);
+    }
+
+    // Compile the auto hot paths while waiting to be enabled, pointless when not in real time
+    if (Constants.currentMode == Constants.Mode.REAL
+        || (Constants.currentMode == Constants.Mode.SIM && Constants.simAuto == null)) {
+      jitWarmup = new JitWarmup(robotContainer.drive);
+    }
   }
 
   /** This function is called periodically during all modes. */
@@ -97,6 +144,7 @@ public class Robot extends LoggedRobot {
     // Switch thread to high priority to improve loop timing
     Threads.setCurrentThreadPriority(true, 99);
 
+    LogVerbosity.periodic();
     VirtualSubsystem.runPeriodically();
 
     // Runs the Scheduler. This is responsible for polling buttons, adding
@@ -116,7 +164,11 @@ public class Robot extends LoggedRobot {
 
   /** This function is called periodically when disabled. */
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    if (jitWarmup != null) {
+      jitWarmup.periodic();
+    }
+  }
 
   @Override
   public void disabledExit() {}
@@ -19,16 +19,31 @@ import edu.wpi.first.wpilibj.GenericHID;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 import frc.robot.bobot_state.BobotState;
+import frc.robot.commands.AlignToPole;
+import frc.robot.commands.AutoRoutineBuilder;
 import frc.robot.commands.DriveCommands;
+import frc.robot.field.FieldConstants;
+import frc.robot.field.FieldUtils;
 import frc.robot.subsystems.drive.Drive;
 import frc.robot.subsystems.drive.GyroIO;
 import frc.robot.subsystems.drive.GyroIONavX;
+import frc.robot.subsystems.drive.GyroIOSim;
 import frc.robot.subsystems.drive.ModuleIO;
 import frc.robot.subsystems.drive.ModuleIOGyarados;
 import frc.robot.subsystems.drive.ModuleIOSim;
+import frc.robot.subsystems.vision.Vision;
 import frc.robot.util.CommandCustomXboxController;
+import frc.robot.util.TeleopInput;
+import frc.robot.util.TrajectoryCache;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * This class is where the bulk of the robot should be declared. Since Command-based is a
@@ -42,9 +57,11 @@ public class RobotContainer {
 
   // Controller
   public final CommandCustomXboxController driverController = new CommandCustomXboxController(0);
+  private final TeleopInput teleopInput = new TeleopInput(driverController);
 
   // Dashboard inputs
   private final AutoChooser autoChooser = new AutoChooser();
+  private final Map<String, Supplier<Command>> autoRoutines = new LinkedHashMap<>();
   //   private final Autos autos;
 
   /** The container for the robot. Contains subsystems, OI devices, and commands. */
@@ -67,11 +84,14 @@ public class RobotContainer {
         // Sim robot, instantiate physics sim IO implementations
         drive =
             new Drive(
-                new GyroIO() {},
-                new ModuleIOSim(),
-                new ModuleIOSim(),
-                new ModuleIOSim(),
-                new ModuleIOSim());
+                new GyroIOSim(),
+                new ModuleIOSim(0),
+                new ModuleIOSim(1),
+                new ModuleIOSim(2),
+                new ModuleIOSim(3));
+
+        // Simulated cameras feed the pose estimator, so camera noise reaches sim autos
+        new Vision();
         break;
 
       case REPLAY:
@@ -94,11 +114,44 @@ public class RobotContainer {
   }
 
   private void configureAutos() {
+    addAutoRoutine("2 Meters", () -> followTrajectory("2 Meters"));
+    addAutoRoutine("3 Meters", () -> followTrajectory("3 Meters"));
+    addAutoRoutine("5 Meters", () -> followTrajectory("5 Meters"));
+    // Curvy.traj isn't valid JSON, so it stays out of the chooser until it's regenerated in Choreo
+
+    // Scores on L4 at each pole, then heads back to the station. The left NoStop paths from the
+    // station end short of the poles the return paths start from, so K and L stop to score.
+    addAutoRoutine(
+        "Left IKL",
+        () ->
+            new AutoRoutineBuilder(drive)
+                .segment("StartLeft-IL4-NoStop")
+                .segment("IL4-HPSLeft")
+                .segment("HPSLeft-KL4")
+                .segment("KL4-HPSLeft")
+                .segment("HPSLeft-LL4")
+                .build());
+    // Scores on L4 at each pole, then heads back to the station. The NoStop paths end moving, but
+    // the paths back start at rest, so the robot still stops at every pole.
+    addAutoRoutine(
+        "Right FCD",
+        () ->
+            new AutoRoutineBuilder(drive)
+                .segment("StartRight-FL4-NoStop")
+                .segment("FL4-HPSRight")
+                .segment("HPSRight-CL4-NoStop")
+                .segment("CL4-HPSRight")
+                .segment("HPSRight-DL4-NoStop")
+                .build());
+
     autoChooser.addCmd(
         "Drive Wheel Radius Characterization",
         () -> DriveCommands.wheelRadiusCharacterization(drive));
     autoChooser.addCmd(
         "Drive Simple FF Characterization", () -> DriveCommands.feedforwardCharacterization(drive));
+    autoChooser.addCmd(
+        "Turn Simple FF Characterization",
+        () -> DriveCommands.turnFeedforwardCharacterization(drive));
     autoChooser.addCmd(
         "Drive SysId (Quasistatic Forward)",
         () -> drive.sysIdQuasistatic(SysIdRoutine.Direction.kForward));
@@ -113,6 +166,28 @@ public class RobotContainer {
     SmartDashboard.putData("Auto Chooser", autoChooser);
   }
 
+  /**
+   * Adds an auto to the chooser that also runs headless in sim. Characterization commands are added
+   * to the chooser directly since they can run until cancelled.
+   */
+  private void addAutoRoutine(String name, Supplier<Command> routine) {
+    autoRoutines.put(name, routine);
+    autoChooser.addCmd(name, routine);
+  }
+
+  /** Resets odometry to the start of a single trajectory and follows it. */
+  private Command followTrajectory(String trajectoryName) {
+    return TrajectoryCache.getInstance()
+        .getTrajectory(trajectoryName)
+        .map(
+            trajectory ->
+                drive
+                    .autoFactory
+                    .resetOdometry(trajectory)
+                    .andThen(drive.autoFactory.trajectoryCmd(trajectory)))
+        .orElseGet(Commands::none); // Choreo already reported why it didn't load
+  }
+
   /**
    * Use this method to define your button->command mappings. Buttons can be created by
    * instantiating a {@link GenericHID} or one of its subclasses ({@link
@@ -121,6 +196,36 @@ public class RobotContainer {
    */
   private void configureButtonBindings() {
     configureRotationModes();
+    configureDriveToTargets();
+  }
+
+  /**
+   * Drives to a target near the robot for as long as its button is held. Each target has one way
+   * of getting there: the poles line up with {@link AlignToPole}, which ends once aligned, and the
+   * station follows a generated trajectory.
+   */
+  private void configureDriveToTargets() {
+    driverController
+        .leftBumper()
+        .whileTrue(
+            new AlignToPole(
+                drive,
+                () -> FieldUtils.getClosestReef().leftPole,
+                FieldConstants.eventConstants.l4ReefOffset));
+    driverController
+        .rightBumper()
+        .whileTrue(
+            new AlignToPole(
+                drive,
+                () -> FieldUtils.getClosestReef().rightPole,
+                FieldConstants.eventConstants.l4ReefOffset));
+    driverController
+        .y()
+        .whileTrue(
+            DriveCommands.driveToPose(
+                drive,
+                "To HPS",
+                () -> FieldUtils.getClosestHPS().getClosest(BobotState.getGlobalPose())));
   }
 
   private void configureRotationModes() {
@@ -129,19 +234,13 @@ public class RobotContainer {
         drive.setDefaultCommand(
             DriveCommands.joystickDriveAtAngle(
                     drive,
-                    () -> -driverController.getLeftYSquared(),
-                    () -> -driverController.getLeftXSquared(),
+                    teleopInput,
                     () -> BobotState.getCurrentAlignmentTracker().getRotationTarget())
                 .unless(DriverStation::isAutonomous));
         break;
       case FREE:
       default:
-        drive.setDefaultCommand(
-            DriveCommands.joystickDrive(
-                drive,
-                () -> -driverController.getLeftYSquared(),
-                () -> -driverController.getLeftXSquared(),
-                () -> driverController.getRightXSquared()));
+        drive.setDefaultCommand(DriveCommands.joystickDrive(drive, teleopInput));
         break;
     }
   }
@@ -154,4 +253,14 @@ public class RobotContainer {
   public Command getAutonomousCommand() {
     return autoChooser.selectedCommand();
   }
+
+  /** Returns the names of every auto routine, in the order they appear in the chooser. */
+  public Set<String> getAutoRoutineNames() {
+    return Collections.unmodifiableSet(autoRoutines.keySet());
+  }
+
+  /** Creates a new instance of the auto routine with the given name. */
+  public Optional<Command> getAutoRoutine(String name) {
+    return Optional.ofNullable(autoRoutines.get(name)).map(Supplier::get);
+  }
 }
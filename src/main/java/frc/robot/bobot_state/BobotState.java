@@ -10,6 +10,8 @@ import frc.robot.field.FieldConstants;
 import frc.robot.field.FieldUtils;
 import frc.robot.subsystems.quest.TimestampedPose;
 import frc.robot.subsystems.vision.PoseObservation;
+import frc.robot.util.LogVerbosity;
+import frc.robot.util.LogVerbosity.Group;
 import frc.robot.util.PoseUtils;
 import frc.robot.util.VirtualSubsystem;
 import java.util.List;
@@ -24,6 +26,29 @@ import org.littletonrobotics.junction.Logger;
  */
 public class BobotState extends VirtualSubsystem {
   private static final String logRoot = "BobotState/";
+  private static final String climberModeKey = logRoot + "ClimberMode";
+  private static final String questMeasurementsKey = logRoot + "Quest/Measurements";
+
+  private static final String reefLogRoot = logRoot + "Reef/";
+  private static final String reefClosestTagKey = reefLogRoot + "ClosestTag";
+  private static final String reefTargetAngleDegKey = reefLogRoot + "TargetAngleDeg";
+  private static final String reefTargetAngleRadKey = reefLogRoot + "TargetAngleRad";
+  private static final String reefLeftPoleKey = reefLogRoot + "Left Pole";
+  private static final String reefRightPoleKey = reefLogRoot + "Right Pole";
+
+  private static final String hpsLogRoot = logRoot + "HPS/";
+  private static final String hpsClosestTagKey = hpsLogRoot + "Closest Tag";
+  private static final String hpsDistanceKey = hpsLogRoot + "Distance";
+  private static final String hpsTargetAngleDegKey = hpsLogRoot + "TargetAngleDeg";
+  private static final String hpsTargetAngleRadKey = hpsLogRoot + "TargetAngleRad";
+
+  private static final String bargeLogRoot = logRoot + "Barge/";
+  private static final String bargeTargetAngleDegKey = bargeLogRoot + "TargetAngleDeg";
+  private static final String bargeTargetAngleRadKey = bargeLogRoot + "TargetAngleRad";
+
+  private static final String currentAlignmentLogRoot = logRoot + "CurrentAlignment/";
+  private static final String currentAlignmentEnabledKey = currentAlignmentLogRoot + "Enabled";
+  private static final String currentAlignmentTypeKey = currentAlignmentLogRoot + "Type";
 
   private static final Queue<PoseObservation> globalPoseObservations =
       new LinkedBlockingQueue<>(20);
@@ -105,62 +130,70 @@ public class BobotState extends VirtualSubsystem {
   }
 
   public static TargetAngleTracker getCurrentAlignmentTracker() {
-    return climbMode
-        ? bargeTracker
-        : autoAlignmentTrackers.stream()
-            .reduce((a, b) -> a.getDistanceMeters() < b.getDistanceMeters() ? a : b)
-            .get();
+    if (climbMode) {
+      return bargeTracker;
+    }
+
+    // A plain loop, since the drive command asks every loop
+    TargetAngleTracker closest = autoAlignmentTrackers.get(0);
+    for (int i = 1; i < autoAlignmentTrackers.size(); i++) {
+      if (autoAlignmentTrackers.get(i).getDistanceMeters() < closest.getDistanceMeters()) {
+        closest = autoAlignmentTrackers.get(i);
+      }
+    }
+    return closest;
   }
 
   @Override
   public void periodic() {
-    Logger.recordOutput(logRoot + "ClimberMode", climbMode);
+    Logger.recordOutput(climberModeKey, climbMode);
 
-    {
+    boolean logDiagnostics = LogVerbosity.shouldLog(Group.ALIGNMENT_DIAGNOSTICS);
+
+    if (logDiagnostics) {
       TimestampedPose[] questPoses = getQuestMeasurments().stream().toArray(TimestampedPose[]::new);
-      Logger.recordOutput(logRoot + "Quest/Measurements", questPoses);
+      Logger.recordOutput(questMeasurementsKey, questPoses);
     }
 
     {
       reefTracker.update();
 
-      String calcLogRoot = logRoot + "Reef/";
-      Logger.recordOutput(calcLogRoot + "ClosestTag", FieldUtils.getClosestReef().tag);
-      Logger.recordOutput(
-          calcLogRoot + "TargetAngleDeg", reefTracker.getRotationTarget().getDegrees());
-      Logger.recordOutput(
-          calcLogRoot + "TargetAngleRad", reefTracker.getRotationTarget().getRadians());
-      Logger.recordOutput(calcLogRoot + "Left Pole", FieldUtils.getClosestReef().leftPole);
-      Logger.recordOutput(calcLogRoot + "Right Pole", FieldUtils.getClosestReef().rightPole);
+      Logger.recordOutput(reefClosestTagKey, FieldUtils.getClosestReef().tag);
+      Logger.recordOutput(reefTargetAngleRadKey, reefTracker.getRotationTarget().getRadians());
+
+      if (logDiagnostics) {
+        Logger.recordOutput(reefTargetAngleDegKey, reefTracker.getRotationTarget().getDegrees());
+        Logger.recordOutput(reefLeftPoleKey, FieldUtils.getClosestReef().leftPole);
+        Logger.recordOutput(reefRightPoleKey, FieldUtils.getClosestReef().rightPole);
+      }
     }
 
     {
       hpsTracker.update();
 
-      String calcLogRoot = logRoot + "HPS/";
-      Logger.recordOutput(calcLogRoot + "Closest Tag", FieldUtils.getClosestHPS().tag);
-      Logger.recordOutput(calcLogRoot + "Distance", BobotState.hpsTracker.getDistanceMeters());
-      Logger.recordOutput(
-          calcLogRoot + "TargetAngleDeg", hpsTracker.getRotationTarget().getDegrees());
-      Logger.recordOutput(
-          calcLogRoot + "TargetAngleRad", hpsTracker.getRotationTarget().getRadians());
+      Logger.recordOutput(hpsClosestTagKey, FieldUtils.getClosestHPS().tag);
+      Logger.recordOutput(hpsDistanceKey, BobotState.hpsTracker.getDistanceMeters());
+      Logger.recordOutput(hpsTargetAngleRadKey, hpsTracker.getRotationTarget().getRadians());
+
+      if (logDiagnostics) {
+        Logger.recordOutput(hpsTargetAngleDegKey, hpsTracker.getRotationTarget().getDegrees());
+      }
     }
 
     {
       bargeTracker.update();
 
-      String calcLogRoot = logRoot + "Barge/";
-      Logger.recordOutput(
-          calcLogRoot + "TargetAngleDeg", hpsTracker.getRotationTarget().getDegrees());
-      Logger.recordOutput(
-          calcLogRoot + "TargetAngleRad", hpsTracker.getRotationTarget().getRadians());
+      Logger.recordOutput(bargeTargetAngleRadKey, hpsTracker.getRotationTarget().getRadians());
+
+      if (logDiagnostics) {
+        Logger.recordOutput(bargeTargetAngleDegKey, hpsTracker.getRotationTarget().getDegrees());
+      }
     }
 
     {
-      String calcLogRoot = logRoot + "CurrentAlignment/";
-      Logger.recordOutput(calcLogRoot + "Enabled", autoAlignEnabled().getAsBoolean());
+      Logger.recordOutput(currentAlignmentEnabledKey, autoAlignEnabled().getAsBoolean());
       Logger.recordOutput(
-          calcLogRoot + "Type", getCurrentAlignmentTracker().getClass().getSimpleName());
+          currentAlignmentTypeKey, getCurrentAlignmentTracker().getClass().getSimpleName());
     }
   }
 
@@ -0,0 +1,142 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.field.ReefPole;
+import frc.robot.subsystems.drive.Drive;
+import frc.robot.util.PoseUtils;
+import java.util.function.Supplier;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Drives to a reef pole and lines up on it, ending once aligned.
+ *
+ * <p>Works in the frame of the pole's face, so the error along the face and the distance off it
+ * converge separately, each along its own trapezoid profile from {@link
+ * DriveCommandConstants#makeTranslationController}. The profiles start from the robot's current
+ * velocity instead of zero and their velocities are fed forward, so the robot doesn't jerk when the
+ * command starts mid-drive. It's aligned once every controller has stayed at its goal for {@link
+ * #settleSecs}. The time that took and the errors it ended with are logged for every attempt,
+ * interrupted or not.
+ */
+public class AlignToPole extends Command {
+  private static final double settleSecs = 0.1;
+
+  private static final String logRoot = "AlignToPole/";
+  private static final String alignedKey = logRoot + "Aligned";
+  private static final String timeToAlignedKey = logRoot + "TimeToAlignedSecs";
+  private static final String parallelErrorKey = logRoot + "FinalParallelErrorMeters";
+  private static final String perpendicularErrorKey = logRoot + "FinalPerpendicularErrorMeters";
+  private static final String rotationErrorKey = logRoot + "FinalRotationErrorDeg";
+  private static final String targetKey = logRoot + "Target";
+
+  private final Drive drive;
+  private final Supplier<ReefPole> poleSupplier;
+  private final double offsetMeters;
+
+  private final ProfiledPIDController parallelController =
+      DriveCommandConstants.makeTranslationController();
+  private final ProfiledPIDController perpendicularController =
+      DriveCommandConstants.makeTranslationController();
+  private final ProfiledPIDController angleController = DriveCommandConstants.makeAngleController();
+  private final Debouncer settleDebouncer = new Debouncer(settleSecs);
+  private final Timer timer = new Timer();
+
+  /** Where the robot lines up, facing away from the reef like the pole's tag. */
+  private Pose2d facePose = Pose2d.kZero;
+
+  private Rotation2d targetRotation = Rotation2d.kZero;
+  private boolean aligned = false;
+
+  /**
+   * @param offsetMeters how far off the face to line up, like {@code l4ReefOffset}
+   */
+  public AlignToPole(Drive drive, Supplier<ReefPole> poleSupplier, double offsetMeters) {
+    this.drive = drive;
+    this.poleSupplier = poleSupplier;
+    this.offsetMeters = offsetMeters;
+    addRequirements(drive);
+  }
+
+  @Override
+  public void initialize() {
+    ReefPole pole = poleSupplier.get();
+    facePose = pole.getPerpendicularOffsetPose(offsetMeters);
+    targetRotation = facePose.getRotation().plus(Rotation2d.kPi);
+
+    // Start each profile from how fast the robot is already closing that error
+    Pose2d pose = drive.getGlobalPose();
+    ChassisSpeeds fieldSpeeds =
+        ChassisSpeeds.fromRobotRelativeSpeeds(drive.getChassisSpeeds(), drive.getRotation());
+    Rotation2d face = facePose.getRotation();
+    parallelController.reset(
+        PoseUtils.getParallelError(pose, facePose),
+        -fieldSpeeds.vxMetersPerSecond * face.getSin()
+            + fieldSpeeds.vyMetersPerSecond * face.getCos());
+    perpendicularController.reset(
+        PoseUtils.getPerpendicularError(pose, facePose),
+        fieldSpeeds.vxMetersPerSecond * face.getCos()
+            + fieldSpeeds.vyMetersPerSecond * face.getSin());
+    angleController.reset(pose.getRotation().getRadians(), fieldSpeeds.omegaRadiansPerSecond);
+
+    settleDebouncer.calculate(false);
+    aligned = false;
+    timer.restart();
+    Logger.recordOutput(targetKey, PoseUtils.withRotation(facePose, targetRotation));
+  }
+
+  @Override
+  public void execute() {
+    Pose2d pose = drive.getGlobalPose();
+
+    // Velocities in the face's frame, each error driven to zero
+    double parallelVelocity =
+        parallelController.calculate(PoseUtils.getParallelError(pose, facePose), 0.0)
+            + parallelController.getSetpoint().velocity;
+    double perpendicularVelocity =
+        perpendicularController.calculate(PoseUtils.getPerpendicularError(pose, facePose), 0.0)
+            + perpendicularController.getSetpoint().velocity;
+    double omega =
+        angleController.calculate(pose.getRotation().getRadians(), targetRotation.getRadians())
+            + angleController.getSetpoint().velocity;
+
+    // Back to field relative
+    Rotation2d face = facePose.getRotation();
+    double vx = perpendicularVelocity * face.getCos() - parallelVelocity * face.getSin();
+    double vy = perpendicularVelocity * face.getSin() + parallelVelocity * face.getCos();
+    drive.runVelocity(ChassisSpeeds.fromFieldRelativeSpeeds(vx, vy, omega, drive.getRotation()));
+
+    aligned =
+        settleDebouncer.calculate(
+            parallelController.atGoal()
+                && perpendicularController.atGoal()
+                && angleController.atGoal());
+  }
+
+  @Override
+  public boolean isFinished() {
+    return aligned;
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    drive.stop();
+
+    Pose2d pose = drive.getGlobalPose();
+    Logger.recordOutput(alignedKey, aligned);
+    Logger.recordOutput(timeToAlignedKey, aligned ? timer.get() : Double.NaN);
+    Logger.recordOutput(parallelErrorKey, PoseUtils.getParallelError(pose, facePose));
+    Logger.recordOutput(perpendicularErrorKey, PoseUtils.getPerpendicularError(pose, facePose));
+    Logger.recordOutput(
+        rotationErrorKey,
+        Math.toDegrees(
+            MathUtil.angleModulus(
+                pose.getRotation().getRadians() - targetRotation.getRadians())));
+  }
+}
@@ -0,0 +1,138 @@
+package frc.robot.commands;
+
+import choreo.trajectory.EventMarker;
+import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.subsystems.drive.Drive;
+import frc.robot.util.TrajectoryCache;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Builds an auto routine out of trajectory segments that run back to back, like a {@code -NoStop}
+ * path that scores as it reaches the reef followed by the path back to the station.
+ *
+ * <pre>{@code
+ * new AutoRoutineBuilder(drive)
+ *     .segment("StartLeft-IL4-NoStop")
+ *     .segment("IL4-HPSLeft")
+ *     .onEvent("L4", () -> scoreCommand())
+ *     .build();
+ * }</pre>
+ *
+ * <p>Every segment is fetched from the {@link TrajectoryCache} when the routine is built, so
+ * nothing loads between segments. The segments run in one sequence that holds the drive, so the
+ * default command never gets a loop in between. Each segment's feedforward starts from its own
+ * first sample, so a segment that doesn't start where the previous one ended, or at the speed it
+ * ended at, is warned about when the routine is built. Event commands are scheduled on their own at
+ * each event's time, and every event is logged.
+ */
+public class AutoRoutineBuilder {
+  private static final String eventKey = "Autos/Event";
+
+  /** How far apart the end of one segment and the start of the next can be. */
+  private static final double maxGapMeters = 0.05;
+
+  /** How different the velocity at the end of one segment and the start of the next can be. */
+  private static final double maxGapMetersPerSec = 0.1;
+
+  private final Drive drive;
+  private final List<String> segmentNames = new ArrayList<>();
+  private final Map<String, Supplier<Command>> eventCommands = new LinkedHashMap<>();
+
+  public AutoRoutineBuilder(Drive drive) {
+    this.drive = drive;
+  }
+
+  /** Adds a trajectory to follow after the previous one. The first resets odometry. */
+  public AutoRoutineBuilder segment(String trajectoryName) {
+    segmentNames.add(trajectoryName);
+    return this;
+  }
+
+  /** Schedules a command whenever a segment reaches an event marker with this name. */
+  public AutoRoutineBuilder onEvent(String eventName, Supplier<Command> command) {
+    eventCommands.put(eventName, command);
+    return this;
+  }
+
+  public Command build() {
+    List<Trajectory<SwerveSample>> segments = new ArrayList<>();
+    for (String name : segmentNames) {
+      Optional<Trajectory<SwerveSample>> trajectory =
+          TrajectoryCache.getInstance().getTrajectory(name);
+      if (trajectory.isEmpty()) {
+        return Commands.none(); // Choreo already reported why it didn't load
+      }
+      segments.add(trajectory.get());
+    }
+    if (segments.isEmpty()) {
+      return Commands.none();
+    }
+
+    List<Command> commands = new ArrayList<>();
+    commands.add(drive.autoFactory.resetOdometry(segments.get(0)));
+    for (int i = 0; i < segments.size(); i++) {
+      if (i > 0) {
+        warnIfDisconnected(segments.get(i - 1), segments.get(i));
+      }
+      commands.add(
+          Commands.deadline(
+              drive.autoFactory.trajectoryCmd(segments.get(i)), eventsFor(segments.get(i))));
+    }
+
+    return Commands.sequence(commands.toArray(Command[]::new));
+  }
+
+  /** Waits for each of the segment's events, then logs it and schedules its command. */
+  private Command eventsFor(Trajectory<SwerveSample> segment) {
+    List<Command> events = new ArrayList<>();
+    for (EventMarker event : segment.events()) {
+      Supplier<Command> command = eventCommands.get(event.event);
+      events.add(
+          Commands.waitSeconds(event.timestamp)
+              .andThen(
+                  Commands.runOnce(
+                      () -> {
+                        Logger.recordOutput(eventKey, event.event);
+                        if (command != null) {
+                          command.get().schedule();
+                        }
+                      })));
+    }
+    return Commands.parallel(events.toArray(Command[]::new));
+  }
+
+  /** Warns when the next segment doesn't start where, or as fast as, the current one ends. */
+  private static void warnIfDisconnected(
+      Trajectory<SwerveSample> current, Trajectory<SwerveSample> next) {
+    SwerveSample end = current.samples().get(current.samples().size() - 1);
+    SwerveSample start = next.samples().get(0);
+
+    double positionGap = Math.hypot(start.x - end.x, start.y - end.y);
+    if (positionGap > maxGapMeters) {
+      DriverStation.reportWarning(
+          String.format(
+              "%s starts %.2f m from where %s ends", next.name(), positionGap, current.name()),
+          false);
+    }
+
+    double velocityGap = Math.hypot(start.vx - end.vx, start.vy - end.vy);
+    if (velocityGap > maxGapMetersPerSec) {
+      DriverStation.reportWarning(
+          String.format(
+              "%s starts %.2f m/s off the velocity %s ends at, so the drive will change speed"
+                  + " between them",
+              next.name(), velocityGap, current.name()),
+          false);
+    }
+  }
+}
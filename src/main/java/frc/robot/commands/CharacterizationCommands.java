@@ -0,0 +1,65 @@
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.util.FeedforwardCharacterizer;
+import frc.robot.util.LogVerbosity;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+public class CharacterizationCommands {
+  private static final double startDelaySecs = 2.0;
+
+  private CharacterizationCommands() {}
+
+  /**
+   * Ramps a mechanism's voltage up from zero while fitting its feedforward with a {@link
+   * FeedforwardCharacterizer}, then prints the fit. Ends on its own once kS and kV converge over
+   * at least {@code minVelocitySpan}, or can be cancelled earlier. Holds zero volts for a moment
+   * first, so it starts from rest.
+   *
+   * @param minVelocity slowest velocity to fit, in the same units as {@code velocity}
+   * @param minVelocitySpan how wide a span of velocities to fit before ending on its own
+   */
+  public static Command feedforward(
+      String name,
+      DoubleConsumer runVolts,
+      DoubleSupplier velocity,
+      double rampVoltsPerSec,
+      double minVelocity,
+      double minVelocitySpan,
+      Subsystem... requirements) {
+    FeedforwardCharacterizer characterizer =
+        new FeedforwardCharacterizer(name, minVelocity, minVelocitySpan);
+    Timer timer = new Timer();
+
+    return LogVerbosity.whileCharacterizing(
+        Commands.sequence(
+                // Let the mechanism settle
+                Commands.run(() -> runVolts.accept(0.0), requirements).withTimeout(startDelaySecs),
+
+                // Start fitting from scratch
+                Commands.runOnce(
+                    () -> {
+                      characterizer.reset();
+                      timer.restart();
+                    }),
+
+                // Accelerate and fit until it converges
+                Commands.run(
+                        () -> {
+                          double volts = timer.get() * rampVoltsPerSec;
+                          runVolts.accept(volts);
+                          characterizer.update(volts, velocity.getAsDouble());
+                        },
+                        requirements)
+                    .until(characterizer::isConverged))
+            .finallyDo(
+                () -> {
+                  runVolts.accept(0.0);
+                  characterizer.printResults();
+                }));
+  }
+}
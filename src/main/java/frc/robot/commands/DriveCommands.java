@@ -17,76 +17,48 @@ import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.filter.SlewRateLimiter;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Transform2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.DriverStation.Alliance;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import frc.robot.subsystems.drive.Drive;
 import frc.robot.subsystems.drive.DriveConstants;
+import frc.robot.util.LogVerbosity;
+import frc.robot.util.LogVerbosity.Group;
+import frc.robot.util.PathGenerator;
+import frc.robot.util.TeleopInput;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.function.DoubleSupplier;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.littletonrobotics.junction.Logger;
 
 public class DriveCommands {
-  private static final double FF_START_DELAY = 2.0; // Secs
   private static final double FF_RAMP_RATE = 0.1; // Volts/Sec
+  private static final double FF_MIN_VELOCITY = 0.05; // Rad/Sec
+  private static final double FF_MIN_VELOCITY_SPAN = 10.0; // Rad/Sec
   private static final double WHEEL_RADIUS_MAX_VELOCITY = 0.25; // Rad/Sec
   private static final double WHEEL_RADIUS_RAMP_RATE = 0.05; // Rad/Sec^2
 
   private DriveCommands() {}
 
-  private static Translation2d getLinearVelocityFromJoysticks(double x, double y) {
-    double linearMagnitude = Math.hypot(x, y);
-    Rotation2d linearDirection = new Rotation2d(Math.atan2(y, x));
-
-    // Return new linear velocity
-    return new Pose2d(new Translation2d(), linearDirection)
-        .transformBy(new Transform2d(linearMagnitude, 0.0, new Rotation2d()))
-        .getTranslation();
-  }
-
   /**
    * Field relative drive command using two joysticks (controlling linear and angular velocities).
    */
-  public static Command joystickDrive(
-      Drive drive,
-      DoubleSupplier xSupplier,
-      DoubleSupplier ySupplier,
-      DoubleSupplier omegaSupplier) {
+  public static Command joystickDrive(Drive drive, TeleopInput input) {
+    ChassisSpeeds speeds = new ChassisSpeeds();
     return Commands.run(
-        () -> {
-          // Get linear velocity
-          Translation2d linearVelocity =
-              getLinearVelocityFromJoysticks(xSupplier.getAsDouble(), ySupplier.getAsDouble());
-
-          double omega = omegaSupplier.getAsDouble();
-
-          // Convert to field relative speeds & send command
-          ChassisSpeeds speeds =
-              new ChassisSpeeds(
-                  linearVelocity.getX() * drive.getMaxLinearSpeedMetersPerSec(),
-                  linearVelocity.getY() * drive.getMaxLinearSpeedMetersPerSec(),
-                  omega * drive.getMaxAngularSpeedRadPerSec());
-          boolean isFlipped =
-              DriverStation.getAlliance().isPresent()
-                  && DriverStation.getAlliance().get() == Alliance.Red;
-          drive.runVelocity(
-              ChassisSpeeds.fromFieldRelativeSpeeds(
-                  speeds,
-                  isFlipped
-                      ? drive.getRotation().plus(new Rotation2d(Math.PI))
-                      : drive.getRotation()));
-        },
-        drive);
+            () -> {
+              input.update();
+              runFieldRelative(
+                  drive,
+                  input.getLinearX() * drive.getMaxLinearSpeedMetersPerSec(),
+                  input.getLinearY() * drive.getMaxLinearSpeedMetersPerSec(),
+                  input.getAngular() * drive.getMaxAngularSpeedRadPerSec(),
+                  speeds);
+            },
+            drive)
+        .beforeStarting(input::reset);
   }
 
   /**
@@ -95,20 +67,16 @@ public class DriveCommands {
    * absolute rotation with a joystick.
    */
   public static Command joystickDriveAtAngle(
-      Drive drive,
-      DoubleSupplier xSupplier,
-      DoubleSupplier ySupplier,
-      Supplier<Rotation2d> rotationSupplier) {
+      Drive drive, TeleopInput input, Supplier<Rotation2d> rotationSupplier) {
 
     // Create PID controller
     ProfiledPIDController angleController = DriveCommandConstants.makeAngleController();
+    ChassisSpeeds speeds = new ChassisSpeeds();
 
     // Construct command
     return Commands.run(
             () -> {
-              // Get linear velocity
-              Translation2d linearVelocity =
-                  getLinearVelocityFromJoysticks(xSupplier.getAsDouble(), ySupplier.getAsDouble());
+              input.update();
 
               // Calculate angular speed
               double omega =
@@ -116,26 +84,55 @@ public class DriveCommands {
                       drive.getRotation().getRadians(), rotationSupplier.get().getRadians());
               omega = !angleController.atSetpoint() ? omega : 0;
 
-              // Convert to field relative speeds & send command
-              ChassisSpeeds speeds =
-                  new ChassisSpeeds(
-                      linearVelocity.getX() * drive.getMaxLinearSpeedMetersPerSec(),
-                      linearVelocity.getY() * drive.getMaxLinearSpeedMetersPerSec(),
-                      omega);
-              boolean isFlipped =
-                  DriverStation.getAlliance().isPresent()
-                      && DriverStation.getAlliance().get() == Alliance.Red;
-              drive.runVelocity(
-                  ChassisSpeeds.fromFieldRelativeSpeeds(
-                      speeds,
-                      isFlipped
-                          ? drive.getRotation().plus(new Rotation2d(Math.PI))
-                          : drive.getRotation()));
+              runFieldRelative(
+                  drive,
+                  input.getLinearX() * drive.getMaxLinearSpeedMetersPerSec(),
+                  input.getLinearY() * drive.getMaxLinearSpeedMetersPerSec(),
+                  omega,
+                  speeds);
             },
             drive)
 
-        // Reset PID controller when command starts
-        .beforeStarting(() -> angleController.reset(drive.getRotation().getRadians()));
+        // Reset PID controller and input when command starts
+        .beforeStarting(
+            () -> {
+              input.reset();
+              angleController.reset(drive.getRotation().getRadians());
+            });
+  }
+
+  /**
+   * Runs field relative speeds, like {@link ChassisSpeeds#fromFieldRelativeSpeeds} but filling in
+   * {@code out} instead of allocating.
+   */
+  private static void runFieldRelative(
+      Drive drive, double vx, double vy, double omega, ChassisSpeeds out) {
+    Rotation2d rotation = drive.getRotation();
+    out.vxMetersPerSecond = vx * rotation.getCos() + vy * rotation.getSin();
+    out.vyMetersPerSecond = -vx * rotation.getSin() + vy * rotation.getCos();
+    out.omegaRadiansPerSecond = omega;
+    drive.runVelocity(out);
+  }
+
+  /**
+   * Drives straight to a pose in field coordinates along a trajectory generated from wherever the
+   * robot is when it starts, followed the same way as a Choreo trajectory. Does nothing for a pose
+   * that isn't set for the current event.
+   */
+  public static Command driveToPose(Drive drive, String name, Supplier<Pose2d> goalSupplier) {
+    return Commands.defer(
+        () -> {
+          Pose2d goal = goalSupplier.get();
+          if (Double.isNaN(goal.getX()) || Double.isNaN(goal.getY())) {
+            return Commands.none();
+          }
+
+          ChassisSpeeds fieldSpeeds =
+              ChassisSpeeds.fromRobotRelativeSpeeds(drive.getChassisSpeeds(), drive.getRotation());
+          return drive.autoFactory.trajectoryCmd(
+              PathGenerator.getInstance().generate(name, drive.getGlobalPose(), fieldSpeeds, goal));
+        },
+        Set.of(drive));
   }
 
   /**
@@ -144,61 +141,28 @@ public class DriveCommands {
    * <p>This command should only be used in voltage control mode.
    */
   public static Command feedforwardCharacterization(Drive drive) {
-    List<Double> velocitySamples = new LinkedList<>();
-    List<Double> voltageSamples = new LinkedList<>();
-    Timer timer = new Timer();
-
-    return Commands.sequence(
-        // Reset data
-        Commands.runOnce(
-            () -> {
-              velocitySamples.clear();
-              voltageSamples.clear();
-            }),
-
-        // Allow modules to orient
-        Commands.run(
-                () -> {
-                  drive.runCharacterization(0.0);
-                },
-                drive)
-            .withTimeout(FF_START_DELAY),
-
-        // Start timer
-        Commands.runOnce(timer::restart),
-
-        // Accelerate and gather data
-        Commands.run(
-                () -> {
-                  double voltage = timer.get() * FF_RAMP_RATE;
-                  drive.runCharacterization(voltage);
-                  velocitySamples.add(drive.getFFCharacterizationVelocity());
-                  voltageSamples.add(voltage);
-                },
-                drive)
-
-            // When cancelled, calculate and print results
-            .finallyDo(
-                () -> {
-                  int n = velocitySamples.size();
-                  double sumX = 0.0;
-                  double sumY = 0.0;
-                  double sumXY = 0.0;
-                  double sumX2 = 0.0;
-                  for (int i = 0; i < n; i++) {
-                    sumX += velocitySamples.get(i);
-                    sumY += voltageSamples.get(i);
-                    sumXY += velocitySamples.get(i) * voltageSamples.get(i);
-                    sumX2 += velocitySamples.get(i) * velocitySamples.get(i);
-                  }
-                  double kS = (sumY * sumX2 - sumX * sumXY) / (n * sumX2 - sumX * sumX);
-                  double kV = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+    return drive.withCharacterizationFrames(
+        CharacterizationCommands.feedforward(
+            "Drive",
+            drive::runCharacterization,
+            drive::getFFCharacterizationVelocity,
+            FF_RAMP_RATE,
+            FF_MIN_VELOCITY,
+            FF_MIN_VELOCITY_SPAN,
+            drive));
+  }
 
-                  NumberFormat formatter = new DecimalFormat("#0.00000");
-                  System.out.println("********** Drive FF Characterization Results **********");
-                  System.out.println("\tkS: " + formatter.format(kS));
-                  System.out.println("\tkV: " + formatter.format(kV));
-                }));
+  /** Measures the velocity feedforward constants for the turn motors, spinning them in place. */
+  public static Command turnFeedforwardCharacterization(Drive drive) {
+    return drive.withCharacterizationFrames(
+        CharacterizationCommands.feedforward(
+            "Turn",
+            drive::runTurnCharacterization,
+            drive::getTurnFFCharacterizationVelocity,
+            FF_RAMP_RATE,
+            FF_MIN_VELOCITY,
+            FF_MIN_VELOCITY_SPAN,
+            drive));
   }
 
   /** Measures the robot's wheel radius by spinning in a circle. */
@@ -206,88 +170,92 @@ public class DriveCommands {
     SlewRateLimiter limiter = new SlewRateLimiter(WHEEL_RADIUS_RAMP_RATE);
     WheelRadiusCharacterizationState state = new WheelRadiusCharacterizationState();
 
-    return Commands.parallel(
-        // Drive control sequence
-        Commands.sequence(
-            // Reset acceleration limiter
-            Commands.runOnce(
-                () -> {
-                  limiter.reset(0.0);
-                }),
-
-            // Turn in place, accelerating up to full speed
-            Commands.run(
-                () -> {
-                  double speed = limiter.calculate(WHEEL_RADIUS_MAX_VELOCITY);
-                  drive.runVelocity(new ChassisSpeeds(0.0, 0.0, speed));
-                },
-                drive)),
-
-        // Measurement sequence
-        Commands.sequence(
-            // Wait for modules to fully orient before starting measurement
-            Commands.waitSeconds(1.0),
-
-            // Record starting measurement
-            Commands.runOnce(
-                () -> {
-                  state.positions = drive.getWheelRadiusCharacterizationPositions();
-                  state.lastAngle = drive.getRotation();
-                  state.gyroDelta = 0.0;
-                }),
-
-            // Update gyro delta
-            Commands.run(
+    return drive.withCharacterizationFrames(
+        Commands.parallel(
+            // Drive control sequence
+            Commands.sequence(
+                // Reset acceleration limiter
+                Commands.runOnce(
                     () -> {
-                      var rotation = drive.getRotation();
-                      state.gyroDelta += Math.abs(rotation.minus(state.lastAngle).getRadians());
-                      state.lastAngle = rotation;
+                      limiter.reset(0.0);
+                    }),
 
-                      double[] positions = drive.getWheelRadiusCharacterizationPositions();
-                      double wheelDelta = 0.0;
-                      for (int i = 0; i < 4; i++) {
-                        wheelDelta += Math.abs(positions[i] - state.positions[i]) / 4.0;
-                      }
-                      double wheelRadius =
-                          (state.gyroDelta * DriveConstants.driveBaseRadius) / wheelDelta;
-
-                      Logger.recordOutput(
-                          "Commands/WheelRadiusCharacterization/GyroDeltaRad", state.gyroDelta);
-                      Logger.recordOutput(
-                          "Commands/WheelRadiusCharacterization/GyroDeltaDeg",
-                          Units.radiansToDegrees(state.gyroDelta));
-                      Logger.recordOutput(
-                          "Commands/WheelRadiusCharacterization/Radius", wheelRadius);
-                      Logger.recordOutput(
-                          "Commands/WheelRadiusCharacterization/RadiusIn",
-                          Units.metersToInches(wheelRadius));
-                    })
-
-                // When cancelled, calculate and print results
-                .finallyDo(
+                // Turn in place, accelerating up to full speed
+                Commands.run(
                     () -> {
-                      double[] positions = drive.getWheelRadiusCharacterizationPositions();
-                      double wheelDelta = 0.0;
-                      for (int i = 0; i < 4; i++) {
-                        wheelDelta += Math.abs(positions[i] - state.positions[i]) / 4.0;
-                      }
-                      double wheelRadius =
-                          (state.gyroDelta * DriveConstants.driveBaseRadius) / wheelDelta;
-
-                      NumberFormat formatter = new DecimalFormat("#0.000");
-                      System.out.println(
-                          "********** Wheel Radius Characterization Results **********");
-                      System.out.println(
-                          "\tWheel Delta: " + formatter.format(wheelDelta) + " radians");
-                      System.out.println(
-                          "\tGyro Delta: " + formatter.format(state.gyroDelta) + " radians");
-                      System.out.println(
-                          "\tWheel Radius: "
-                              + formatter.format(wheelRadius)
-                              + " meters, "
-                              + formatter.format(Units.metersToInches(wheelRadius))
-                              + " inches");
-                    })));
+                      double speed = limiter.calculate(WHEEL_RADIUS_MAX_VELOCITY);
+                      drive.runVelocity(new ChassisSpeeds(0.0, 0.0, speed));
+                    },
+                    drive)),
+
+            // Measurement sequence
+            Commands.sequence(
+                // Wait for modules to fully orient before starting measurement
+                Commands.waitSeconds(1.0),
+
+                // Record starting measurement
+                Commands.runOnce(
+                    () -> {
+                      state.positions = drive.getWheelRadiusCharacterizationPositions();
+                      state.lastAngle = drive.getRotation();
+                      state.gyroDelta = 0.0;
+                    }),
+
+                // Update gyro delta
+                Commands.run(
+                        () -> {
+                          var rotation = drive.getRotation();
+                          state.gyroDelta += Math.abs(rotation.minus(state.lastAngle).getRadians());
+                          state.lastAngle = rotation;
+
+                          double[] positions = drive.getWheelRadiusCharacterizationPositions();
+                          double wheelDelta = 0.0;
+                          for (int i = 0; i < 4; i++) {
+                            wheelDelta += Math.abs(positions[i] - state.positions[i]) / 4.0;
+                          }
+                          double wheelRadius =
+                              (state.gyroDelta * DriveConstants.driveBaseRadius) / wheelDelta;
+
+                          Logger.recordOutput(
+                              "Commands/WheelRadiusCharacterization/GyroDeltaRad", state.gyroDelta);
+                          Logger.recordOutput(
+                              "Commands/WheelRadiusCharacterization/Radius", wheelRadius);
+
+                          if (LogVerbosity.shouldLog(Group.CHARACTERIZATION)) {
+                            Logger.recordOutput(
+                                "Commands/WheelRadiusCharacterization/GyroDeltaDeg",
+                                Units.radiansToDegrees(state.gyroDelta));
+                            Logger.recordOutput(
+                                "Commands/WheelRadiusCharacterization/RadiusIn",
+                                Units.metersToInches(wheelRadius));
+                          }
+                        })
+
+                    // When cancelled, calculate and print results
+                    .finallyDo(
+                        () -> {
+                          double[] positions = drive.getWheelRadiusCharacterizationPositions();
+                          double wheelDelta = 0.0;
+                          for (int i = 0; i < 4; i++) {
+                            wheelDelta += Math.abs(positions[i] - state.positions[i]) / 4.0;
+                          }
+                          double wheelRadius =
+                              (state.gyroDelta * DriveConstants.driveBaseRadius) / wheelDelta;
+
+                          NumberFormat formatter = new DecimalFormat("#0.000");
+                          System.out.println(
+                              "********** Wheel Radius Characterization Results **********");
+                          System.out.println(
+                              "\tWheel Delta: " + formatter.format(wheelDelta) + " radians");
+                          System.out.println(
+                              "\tGyro Delta: " + formatter.format(state.gyroDelta) + " radians");
+                          System.out.println(
+                              "\tWheel Radius: "
+                                  + formatter.format(wheelRadius)
+                                  + " meters, "
+                                  + formatter.format(Units.metersToInches(wheelRadius))
+                                  + " inches");
+                        }))));
   }
 
   private static class WheelRadiusCharacterizationState {
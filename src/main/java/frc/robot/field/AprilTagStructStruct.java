@@ -0,0 +1,52 @@
+package frc.robot.field;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.util.struct.Struct;
+import frc.robot.field.FieldConstants.AprilTagStruct;
+import java.nio.ByteBuffer;
+
+/** Fixed-size struct for {@link AprilTagStruct}. */
+public class AprilTagStructStruct implements Struct<AprilTagStruct> {
+  @Override
+  public Class<AprilTagStruct> getTypeClass() {
+    return AprilTagStruct.class;
+  }
+
+  @Override
+  public String getTypeName() {
+    return "AprilTagStruct";
+  }
+
+  @Override
+  public int getSize() {
+    return kSizeInt32 + Pose3d.struct.getSize();
+  }
+
+  @Override
+  public String getSchema() {
+    return "int32 fiducialId;Pose3d pose";
+  }
+
+  @Override
+  public Struct<?>[] getNested() {
+    return new Struct<?>[] {Pose3d.struct};
+  }
+
+  @Override
+  public AprilTagStruct unpack(ByteBuffer bb) {
+    int fiducialId = bb.getInt();
+    Pose3d pose = Pose3d.struct.unpack(bb);
+    return new AprilTagStruct(fiducialId, pose);
+  }
+
+  @Override
+  public void pack(ByteBuffer bb, AprilTagStruct value) {
+    bb.putInt(value.fiducialId());
+    Pose3d.struct.pack(bb, value.pose());
+  }
+
+  @Override
+  public boolean isImmutable() {
+    return true;
+  }
+}
@@ -2,12 +2,49 @@ package frc.robot.field;
 
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.util.struct.StructSerializable;
 import frc.robot.subsystems.vision.VisionConstants;
 import java.util.List;
+import java.util.Objects;
 
 public class FieldConstants {
   /** AdvantageKit-safe loggable version of `AprilTag` that contains data we want without lookups */
-  public static record AprilTagStruct(int fiducialId, Pose3d pose) {}
+  public static final class AprilTagStruct implements StructSerializable {
+    public static final AprilTagStructStruct struct = new AprilTagStructStruct();
+
+    private final int fiducialId;
+    private final Pose3d pose;
+
+    public AprilTagStruct(int fiducialId, Pose3d pose) {
+      this.fiducialId = fiducialId;
+      this.pose = pose;
+    }
+
+    public int fiducialId() {
+      return fiducialId;
+    }
+
+    public Pose3d pose() {
+      return pose;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof AprilTagStruct other
+          && fiducialId == other.fiducialId
+          && pose.equals(other.pose);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fiducialId, pose);
+    }
+
+    @Override
+    public String toString() {
+      return "AprilTagStruct[fiducialId=" + fiducialId + ", pose=" + pose + "]";
+    }
+  }
 
   public static final EventConstants eventConstants = EventConstants.HOME;
 
@@ -1,6 +1,7 @@
 package frc.robot.field;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import frc.robot.field.FieldConstants.AprilTagStruct;
 import frc.robot.util.PoseUtils;
 
@@ -16,4 +17,9 @@ public record ReefPole(AprilTagStruct tag, double tagToReef) {
   public Pose2d getPerpendicularOffsetPose(double offsetMeters) {
     return PoseUtils.getPerpendicularOffsetPose(getPose(), offsetMeters);
   }
+
+  /** Where the robot scores on this pole from, facing the reef from the offset away from it. */
+  public Pose2d getScoringPose(double offsetMeters) {
+    return PoseUtils.plusRotation(getPerpendicularOffsetPose(offsetMeters), Rotation2d.kPi);
+  }
 }
@@ -15,19 +15,21 @@ package frc.robot.subsystems.drive;
 
 import choreo.auto.AutoFactory;
 import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
 import edu.wpi.first.hal.FRCNetComm.tInstances;
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.units.Units;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
 import edu.wpi.first.wpilibj.DriverStation;
@@ -39,12 +41,22 @@ import frc.robot.Constants.Mode;
 import frc.robot.bobot_state.BobotState;
 import frc.robot.subsystems.quest.TimestampedPose;
 import frc.robot.subsystems.vision.PoseObservation;
+import frc.robot.util.LogVerbosity;
+import frc.robot.util.LogVerbosity.Group;
+import frc.robot.util.SysIdAnalyzer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 import org.littletonrobotics.junction.AutoLogOutput;
 import org.littletonrobotics.junction.Logger;
 
 public class Drive extends SubsystemBase {
+  private static final String sampleRoot = "Odometry/Choreo/Sample/";
+
   static final Lock odometryLock = new ReentrantLock();
   private final GyroIO gyroIO;
   private final GyroIOInputsAutoLogged gyroInputs = new GyroIOInputsAutoLogged();
@@ -73,6 +85,22 @@ public class Drive extends SubsystemBase {
   private PIDController xController = new PIDController(10.0, 0.0, 0.2);
   private PIDController yController = new PIDController(10.0, 0.0, 0.2);
   private PIDController angleController = new PIDController(7.5, 0.0, 0.0);
+  private SwerveSample lastTrajectorySample = null;
+  private double activeTrajectoryTotalTime = Double.POSITIVE_INFINITY;
+
+  // Reused every loop so following a trajectory doesn't allocate
+  private final ChassisSpeeds trajectorySpeeds = new ChassisSpeeds();
+  private final ChassisSpeeds discreteSpeeds = new ChassisSpeeds();
+  private final ChassisSpeeds stoppedSpeeds = new ChassisSpeeds();
+  private final SwerveModuleState[] setpointStates = newModuleStates();
+  private final Rotation2d[] setpointHeadings = newModuleHeadings();
+
+  // Kept apart so warm up never changes the headings the modules hold when stopped
+  private final ChassisSpeeds warmUpSpeeds = new ChassisSpeeds();
+  private final SwerveModuleState[] warmUpStates = newModuleStates();
+  private final Rotation2d[] warmUpHeadings = newModuleHeadings();
+  private final List<BiConsumer<Trajectory<SwerveSample>, Boolean>> trajectoryListeners =
+      new ArrayList<>();
 
   public Drive(
       GyroIO gyroIO,
@@ -89,24 +117,27 @@ public class Drive extends SubsystemBase {
     // Usage reporting for swerve template
     HAL.report(tResourceType.kResourceType_RobotDrive, tInstances.kRobotDriveSwerve_AdvantageKit);
 
-    // Start odometry thread
-    SparkOdometryThread.getInstance().start();
-
     // Configure AutoFactory for Choreo
     autoFactory =
-        new AutoFactory(this::getGlobalPose, this::setPose, this::followTrajectory, true, this);
+        new AutoFactory(
+            this::getGlobalPose,
+            this::setPose,
+            this::followTrajectory,
+            true,
+            this,
+            this::logTrajectory);
     angleController.enableContinuousInput(-Math.PI, Math.PI);
 
-    // Configure SysId
+    // Configure SysId, keeping the state under the key older drive logs have it under
     sysId =
-        new SysIdRoutine(
-            new SysIdRoutine.Config(
-                null,
-                null,
-                null,
-                (state) -> Logger.recordOutput("Drive/SysIdState", state.toString())),
-            new SysIdRoutine.Mechanism(
-                (voltage) -> runCharacterization(voltage.in(Units.Volts)), null, this));
+        new SysIdAnalyzer("Drive", SysIdAnalyzer.Mechanism.SIMPLE, "Drive/SysIdState")
+            .createRoutine(
+                new SysIdRoutine.Config(),
+                this::runCharacterization,
+                () -> 0.0,
+                this::getFFCharacterizationVelocity,
+                this);
+    Logger.recordOutput("Drive/StatusFrameProfile", DriveConstants.statusFrameProfile);
   }
 
   @Override
@@ -174,6 +205,8 @@ public class Drive extends SubsystemBase {
 
     // TODO: Confidence for AprilTags & Quest
 
+    Pose2d odometryPose = globalPoseEstimator.getEstimatedPosition();
+
     {
       // AprilTag Cameras (Global)
       PoseObservation globalObservation;
@@ -214,6 +247,14 @@ public class Drive extends SubsystemBase {
       }
     }
 
+    // How far this loop's vision and Quest measurements moved the estimate
+    Logger.recordOutput(
+        "Odometry/VisionCorrectionMeters",
+        globalPoseEstimator
+            .getEstimatedPosition()
+            .getTranslation()
+            .getDistance(odometryPose.getTranslation()));
+
     BobotState.updateGlobalPose(getGlobalPose());
     BobotState.updateConstrainedPose(getConstrainedPose());
   }
@@ -225,14 +266,16 @@ public class Drive extends SubsystemBase {
    */
   public void runVelocity(ChassisSpeeds speeds) {
     // Calculate module setpoints
-    ChassisSpeeds discreteSpeeds = ChassisSpeeds.discretize(speeds, 0.02);
-    SwerveModuleState[] setpointStates = kinematics.toSwerveModuleStates(discreteSpeeds);
-    SwerveDriveKinematics.desaturateWheelSpeeds(
-        setpointStates, DriveConstants.maxSpeedMetersPerSec);
+    discretize(speeds, 0.02, discreteSpeeds);
+    getSetpointStates(discreteSpeeds, setpointStates, setpointHeadings);
+
+    boolean logSetpoints = LogVerbosity.shouldLog(Group.SWERVE_SETPOINTS);
 
     // Log unoptimized setpoints
-    Logger.recordOutput("SwerveStates/Setpoints", setpointStates);
-    Logger.recordOutput("SwerveChassisSpeeds/Setpoints", discreteSpeeds);
+    if (logSetpoints) {
+      Logger.recordOutput("SwerveStates/Setpoints", setpointStates);
+      Logger.recordOutput("SwerveChassisSpeeds/Setpoints", discreteSpeeds);
+    }
 
     // Send setpoints to modules
     for (int i = 0; i < 4; i++) {
@@ -240,7 +283,66 @@ public class Drive extends SubsystemBase {
     }
 
     // Log optimized setpoints (runSetpoint mutates each state)
-    Logger.recordOutput("SwerveStates/SetpointsOptimized", setpointStates);
+    if (logSetpoints) {
+      Logger.recordOutput("SwerveStates/SetpointsOptimized", setpointStates);
+    }
+  }
+
+  /** {@link ChassisSpeeds#discretize} without allocating, using the same twist math. */
+  private static void discretize(ChassisSpeeds speeds, double dtSeconds, ChassisSpeeds out) {
+    double dx = speeds.vxMetersPerSecond * dtSeconds;
+    double dy = speeds.vyMetersPerSecond * dtSeconds;
+    double dtheta = speeds.omegaRadiansPerSecond * dtSeconds;
+    double halfDtheta = dtheta / 2.0;
+    double cosMinusOne = Math.cos(dtheta) - 1.0;
+    double halfThetaByTanOfHalfDtheta =
+        Math.abs(cosMinusOne) < 1e-9
+            ? 1.0 - 1.0 / 12.0 * dtheta * dtheta
+            : -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+
+    out.vxMetersPerSecond = (dx * halfThetaByTanOfHalfDtheta + dy * halfDtheta) / dtSeconds;
+    out.vyMetersPerSecond = (dy * halfThetaByTanOfHalfDtheta - dx * halfDtheta) / dtSeconds;
+    out.omegaRadiansPerSecond = speeds.omegaRadiansPerSecond;
+  }
+
+  /**
+   * {@link SwerveDriveKinematics#toSwerveModuleStates} followed by {@link
+   * SwerveDriveKinematics#desaturateWheelSpeeds}, filling in existing states. Only a module's new
+   * angle is allocated. Modules keep their last heading when asked to stop.
+   */
+  private static void getSetpointStates(
+      ChassisSpeeds speeds, SwerveModuleState[] states, Rotation2d[] headings) {
+    boolean stopped =
+        speeds.vxMetersPerSecond == 0.0
+            && speeds.vyMetersPerSecond == 0.0
+            && speeds.omegaRadiansPerSecond == 0.0;
+
+    double maxSpeed = 0.0;
+    for (int i = 0; i < 4; i++) {
+      if (stopped) {
+        states[i].speedMetersPerSecond = 0.0;
+        states[i].angle = headings[i];
+        continue;
+      }
+
+      Translation2d location = DriveConstants.moduleTranslations[i];
+      double x = speeds.vxMetersPerSecond - speeds.omegaRadiansPerSecond * location.getY();
+      double y = speeds.vyMetersPerSecond + speeds.omegaRadiansPerSecond * location.getX();
+      double speed = Math.hypot(x, y);
+      if (speed > 1e-6) {
+        headings[i] = new Rotation2d(x, y);
+      }
+      states[i].speedMetersPerSecond = speed;
+      states[i].angle = headings[i];
+      maxSpeed = Math.max(maxSpeed, speed);
+    }
+
+    if (maxSpeed > DriveConstants.maxSpeedMetersPerSec) {
+      for (SwerveModuleState state : states) {
+        state.speedMetersPerSecond =
+            state.speedMetersPerSecond / maxSpeed * DriveConstants.maxSpeedMetersPerSec;
+      }
+    }
   }
 
   /** Runs the drive in a straight line with the specified drive output. */
@@ -250,30 +352,141 @@ public class Drive extends SubsystemBase {
     }
   }
 
+  /** Spins every module in place with the specified turn output. */
+  public void runTurnCharacterization(double output) {
+    for (int i = 0; i < 4; i++) {
+      modules[i].runTurnCharacterization(output);
+    }
+  }
+
+  /** Changes how often the module motor controllers send status frames. */
+  public void setStatusFrameProfile(StatusFrameProfile profile) {
+    for (int i = 0; i < 4; i++) {
+      modules[i].setStatusFrameProfile(profile);
+    }
+    Logger.recordOutput("Drive/StatusFrameProfile", profile);
+  }
+
+  /**
+   * Runs a characterization command with {@link StatusFrameProfile#CHARACTERIZATION}, going back to
+   * the usual profile once it ends. Its diagnostics are logged every loop meanwhile.
+   */
+  public Command withCharacterizationFrames(Command command) {
+    return LogVerbosity.whileCharacterizing(
+        command
+            .beforeStarting(() -> setStatusFrameProfile(StatusFrameProfile.CHARACTERIZATION))
+            .finallyDo(() -> setStatusFrameProfile(DriveConstants.statusFrameProfile)));
+  }
+
   /** Stops the drive. */
   public void stop() {
-    runVelocity(new ChassisSpeeds());
+    runVelocity(stoppedSpeeds);
   }
 
   public void followTrajectory(SwerveSample sample) {
+    lastTrajectorySample = sample;
+
     // Get the current pose of the robot
     Pose2d pose = getGlobalPose();
 
-    // Generate the next speeds for the robot
-    ChassisSpeeds speeds =
-        ChassisSpeeds.fromFieldRelativeSpeeds(
-            sample.vx + xController.calculate(pose.getX(), sample.x),
-            sample.vy + yController.calculate(pose.getY(), sample.y),
-            sample.omega
-                + angleController.calculate(pose.getRotation().getRadians(), sample.heading),
-            getRotation());
-
     // Apply the generated speeds
-    runVelocity(speeds);
+    runVelocity(getTrajectorySpeeds(sample, pose));
 
-    Logger.recordOutput("Odometry/Choreo/Sample/Pose", sample.getPose());
-    Logger.recordOutput("Odometry/Choreo/Sample/PoseError", sample.getPose().minus(pose));
-    Logger.recordOutput("Odometry/Choreo/Sample/ChassisSpeeds", sample.getChassisSpeeds());
+    if (LogVerbosity.shouldLog(Group.TRAJECTORY_DIAGNOSTICS)) {
+      logTrajectoryDiagnostics(sample, pose);
+    }
+  }
+
+  /**
+   * Logs the sample and how far the robot is from it as primitives, so nothing is allocated. The
+   * error is in the robot's frame, like {@code sample.getPose().minus(pose)}.
+   */
+  private void logTrajectoryDiagnostics(SwerveSample sample, Pose2d pose) {
+    Rotation2d rotation = pose.getRotation();
+    double dx = sample.x - pose.getX();
+    double dy = sample.y - pose.getY();
+
+    Logger.recordOutput(sampleRoot + "XMeters", sample.x);
+    Logger.recordOutput(sampleRoot + "YMeters", sample.y);
+    Logger.recordOutput(sampleRoot + "HeadingRad", sample.heading);
+    Logger.recordOutput(sampleRoot + "VXMetersPerSec", sample.vx);
+    Logger.recordOutput(sampleRoot + "VYMetersPerSec", sample.vy);
+    Logger.recordOutput(sampleRoot + "OmegaRadPerSec", sample.omega);
+    Logger.recordOutput(
+        sampleRoot + "ErrorXMeters", dx * rotation.getCos() + dy * rotation.getSin());
+    Logger.recordOutput(
+        sampleRoot + "ErrorYMeters", -dx * rotation.getSin() + dy * rotation.getCos());
+    Logger.recordOutput(
+        sampleRoot + "ErrorHeadingRad",
+        MathUtil.angleModulus(sample.heading - rotation.getRadians()));
+  }
+
+  /**
+   * Generates the next robot relative speeds to follow a trajectory sample from the given pose,
+   * into {@link #trajectorySpeeds}.
+   *
+   * <p>Feedback corrects towards the sample, since that's where the robot should be now. The
+   * feedforward is the sample's velocity {@link DriveConstants#trajectoryLookaheadSecs} later,
+   * assuming constant acceleration, so it's what the robot should be doing by the time the modules
+   * act on this loop's command. It never looks past the end of the trajectory.
+   */
+  private ChassisSpeeds getTrajectorySpeeds(SwerveSample sample, Pose2d pose) {
+    double lookahead =
+        MathUtil.clamp(
+            activeTrajectoryTotalTime - sample.t, 0.0, DriveConstants.trajectoryLookaheadSecs);
+
+    // Field relative
+    double vx = sample.vx + sample.ax * lookahead + xController.calculate(pose.getX(), sample.x);
+    double vy = sample.vy + sample.ay * lookahead + yController.calculate(pose.getY(), sample.y);
+    double omega =
+        sample.omega
+            + sample.alpha * lookahead
+            + angleController.calculate(pose.getRotation().getRadians(), sample.heading);
+
+    // Robot relative, like ChassisSpeeds.fromFieldRelativeSpeeds
+    Rotation2d rotation = getRotation();
+    trajectorySpeeds.vxMetersPerSecond = vx * rotation.getCos() + vy * rotation.getSin();
+    trajectorySpeeds.vyMetersPerSecond = -vx * rotation.getSin() + vy * rotation.getCos();
+    trajectorySpeeds.omegaRadiansPerSecond = omega;
+    return trajectorySpeeds;
+  }
+
+  /**
+   * Runs the math {@link #followTrajectory} does for a sample, from a made up pose, without
+   * commanding the modules. Used by {@link frc.robot.util.JitWarmup} while disabled.
+   */
+  public void warmUpTrajectoryFollowing(SwerveSample sample, Pose2d pose) {
+    discretize(getTrajectorySpeeds(sample, pose), 0.02, warmUpSpeeds);
+    getSetpointStates(warmUpSpeeds, warmUpStates, warmUpHeadings);
+    for (int i = 0; i < 4; i++) {
+      modules[i].optimizeSetpoint(warmUpStates[i]);
+    }
+
+    // Don't leave made up errors in the controllers for the first real sample
+    xController.reset();
+    yController.reset();
+    angleController.reset();
+  }
+
+  /**
+   * Registers a callback for when Choreo starts ({@code true}) or stops ({@code false}) following a
+   * trajectory.
+   */
+  public void addTrajectoryListener(BiConsumer<Trajectory<SwerveSample>, Boolean> listener) {
+    trajectoryListeners.add(listener);
+  }
+
+  private void logTrajectory(Trajectory<SwerveSample> trajectory, boolean isStarting) {
+    activeTrajectoryTotalTime = isStarting ? trajectory.getTotalTime() : Double.POSITIVE_INFINITY;
+    Logger.recordOutput("Odometry/Choreo/ActiveTrajectory", isStarting ? trajectory.name() : "");
+    for (BiConsumer<Trajectory<SwerveSample>, Boolean> listener : trajectoryListeners) {
+      listener.accept(trajectory, isStarting);
+    }
+  }
+
+  /** Returns the sample most recently passed to {@link #followTrajectory}, if any. */
+  public Optional<SwerveSample> getLastTrajectorySample() {
+    return Optional.ofNullable(lastTrajectorySample);
   }
 
   /**
@@ -281,24 +494,36 @@ public class Drive extends SubsystemBase {
    * return to their normal orientations the next time a nonzero velocity is requested.
    */
   public void stopWithX() {
-    Rotation2d[] headings = new Rotation2d[4];
     for (int i = 0; i < 4; i++) {
-      headings[i] = DriveConstants.moduleTranslations[i].getAngle();
+      setpointHeadings[i] = DriveConstants.moduleTranslations[i].getAngle();
     }
-    kinematics.resetHeadings(headings);
     stop();
   }
 
+  private static SwerveModuleState[] newModuleStates() {
+    SwerveModuleState[] states = new SwerveModuleState[4];
+    for (int i = 0; i < 4; i++) {
+      states[i] = new SwerveModuleState();
+    }
+    return states;
+  }
+
+  private static Rotation2d[] newModuleHeadings() {
+    Rotation2d[] headings = new Rotation2d[4];
+    Arrays.fill(headings, Rotation2d.kZero);
+    return headings;
+  }
+
   /** Returns a command to run a quasistatic test in the specified direction. */
   public Command sysIdQuasistatic(SysIdRoutine.Direction direction) {
-    return run(() -> runCharacterization(0.0))
-        .withTimeout(1.0)
-        .andThen(sysId.quasistatic(direction));
+    return withCharacterizationFrames(
+        run(() -> runCharacterization(0.0)).withTimeout(1.0).andThen(sysId.quasistatic(direction)));
   }
 
   /** Returns a command to run a dynamic test in the specified direction. */
   public Command sysIdDynamic(SysIdRoutine.Direction direction) {
-    return run(() -> runCharacterization(0.0)).withTimeout(1.0).andThen(sysId.dynamic(direction));
+    return withCharacterizationFrames(
+        run(() -> runCharacterization(0.0)).withTimeout(1.0).andThen(sysId.dynamic(direction)));
   }
 
   /** Returns the module states (turn angles and drive velocities) for all of the modules. */
@@ -344,6 +569,15 @@ public class Drive extends SubsystemBase {
     return output;
   }
 
+  /** Returns the average turn velocity of the modules in rad/sec. */
+  public double getTurnFFCharacterizationVelocity() {
+    double output = 0.0;
+    for (int i = 0; i < 4; i++) {
+      output += modules[i].getTurnFFCharacterizationVelocity() / 4.0;
+    }
+    return output;
+  }
+
   /** Returns the current odometry pose. */
   @AutoLogOutput(key = "Odometry/Robot")
   public Pose2d getGlobalPose() {
@@ -363,6 +597,11 @@ public class Drive extends SubsystemBase {
   /** Resets the current odometry pose. */
   public void setPose(Pose2d pose) {
     globalPoseEstimator.resetPosition(rawGyroRotation, getModulePositions(), pose);
+
+    // Resetting odometry in sim also places the simulated robot
+    if (Constants.currentMode == Mode.SIM) {
+      SwerveChassisSim.getInstance().resetPose(pose);
+    }
   }
 
   /** Returns the maximum linear speed in meters per sec. */
@@ -17,11 +17,29 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.math.util.Units;
+import frc.robot.Constants;
 
 public class DriveConstants {
   // TODO: max speed, wheel radius, gyro trimming
   public static final double maxSpeedMetersPerSec = 4.4;
   public static final double odometryFrequency = 100.0; // Hz
+
+  /** Status frames the module Sparks start with, and go back to after characterization. */
+  public static final StatusFrameProfile statusFrameProfile = StatusFrameProfile.COMPETITION;
+
+  /**
+   * How far past Choreo's sample the feedforward looks when following a trajectory. The modules act
+   * on a command about a loop after it's computed, so this is one loop period. Feedback always aims
+   * at the sample itself.
+   */
+  public static final double trajectoryLookaheadSecs = Constants.loopPeriodSecs;
+
+  // Limits for trajectories made on the fly by frc.robot.util.PathGenerator
+  public static final double pathMaxVelocityMetersPerSec = 3.0;
+  public static final double pathMaxAccelMetersPerSec2 = 3.0;
+  public static final double pathMaxAngularVelocityRadPerSec = 2.0 * Math.PI;
+  public static final double pathMaxAngularAccelRadPerSec2 = 4.0 * Math.PI;
+
   public static final double trackWidth = Units.inchesToMeters(22.5);
   public static final double wheelBase = trackWidth;
   public static final double driveBaseRadius = Math.hypot(trackWidth / 2.0, wheelBase / 2.0);
@@ -116,4 +134,11 @@ public class DriveConstants {
   public static final double turnSimD = 0.0;
   public static final double turnPIDMinInput = 0; // Radians
   public static final double turnPIDMaxInput = 2 * Math.PI; // Radians
+
+  // Chassis sim configuration
+  public static final double robotMassKg = 63.0;
+  public static final double robotMOI = 5.5; // kg m^2
+  public static final double wheelCOF = 1.2;
+  public static final double driveSimMOI = 0.025; // kg m^2, at the wheel
+  public static final double turnSimMOI = 0.004; // kg m^2, at the module
 }
@@ -0,0 +1,43 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.util.SimNoise;
+
+/** Sim implementation of gyro IO, reading the yaw of the simulated chassis. */
+public class GyroIOSim implements GyroIO {
+  private final SwerveChassisSim chassisSim = SwerveChassisSim.getInstance();
+  private double zeroOffsetRad = 0.0;
+
+  @Override
+  public void updateInputs(GyroIOInputs inputs) {
+    inputs.connected = true;
+    inputs.yawPosition =
+        new Rotation2d(
+            getRawYawRad(chassisSim.getHeadingRad(), Timer.getFPGATimestamp()) - zeroOffsetRad);
+    inputs.yawVelocityRadPerSec =
+        chassisSim.getYawRateRadPerSec() + SimNoise.getInstance().getGyroDriftRadPerSec();
+    inputs.accelerationX = chassisSim.getAccelerationXGs();
+    inputs.accelerationY = chassisSim.getAccelerationYGs();
+    inputs.accelerationZ = 1.0;
+
+    // Sampled together with the modules
+    inputs.odometryYawTimestamps = chassisSim.getSampleTimestamps();
+    double[] headings = chassisSim.getSampleHeadingsRad();
+    inputs.odometryYawPositions = new Rotation2d[headings.length];
+    for (int i = 0; i < headings.length; i++) {
+      double yawRad = getRawYawRad(headings[i], inputs.odometryYawTimestamps[i]);
+      inputs.odometryYawPositions[i] = new Rotation2d(yawRad - zeroOffsetRad);
+    }
+  }
+
+  @Override
+  public void zero() {
+    zeroOffsetRad = getRawYawRad(chassisSim.getHeadingRad(), Timer.getFPGATimestamp());
+  }
+
+  /** Drift is zero unless sim noise is enabled. */
+  private static double getRawYawRad(double headingRad, double timestamp) {
+    return headingRad + SimNoise.getInstance().getGyroDriftRadPerSec() * timestamp;
+  }
+}
@@ -18,12 +18,14 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
+import frc.robot.util.LogKeys;
 import org.littletonrobotics.junction.Logger;
 
 public class Module {
   private final ModuleIO io;
   private final ModuleIOInputsAutoLogged inputs = new ModuleIOInputsAutoLogged();
   private final int index;
+  private final String inputsKey;
 
   private final Alert driveDisconnectedAlert;
   private final Alert turnDisconnectedAlert;
@@ -32,6 +34,7 @@ public class Module {
   public Module(ModuleIO io, int index) {
     this.io = io;
     this.index = index;
+    inputsKey = LogKeys.root("Drive").child("Module" + Integer.toString(index)).path();
     driveDisconnectedAlert =
         new Alert(
             "Disconnected drive motor on module " + Integer.toString(index) + ".",
@@ -43,7 +46,7 @@ public class Module {
 
   public void periodic() {
     io.updateInputs(inputs);
-    Logger.processInputs("Drive/Module" + Integer.toString(index), inputs);
+    Logger.processInputs(inputsKey, inputs);
 
     // Calculate positions for odometry
     int sampleCount = inputs.odometryTimestamps.length; // All signals are sampled together
@@ -62,21 +65,46 @@ public class Module {
 
   /** Runs the module with the specified setpoint state. Mutates the state to optimize it. */
   public void runSetpoint(SwerveModuleState state) {
-    // Optimize velocity setpoint
-    state.optimize(getAngle());
-    state.cosineScale(inputs.turnPosition);
+    optimizeSetpoint(state);
 
     // Apply setpoints
     io.setDriveVelocity(state.speedMetersPerSecond / DriveConstants.wheelRadiusMeters);
     io.setTurnPosition(state.angle);
   }
 
+  /**
+   * Optimizes and cosine scales a setpoint for the current angle, like {@link
+   * SwerveModuleState#optimize} then {@link SwerveModuleState#cosineScale}. Only allocates when the
+   * module has to flip.
+   */
+  public void optimizeSetpoint(SwerveModuleState state) {
+    Rotation2d angle = getAngle();
+    double cosError = state.angle.getCos() * angle.getCos() + state.angle.getSin() * angle.getSin();
+    if (cosError < 0.0) {
+      state.speedMetersPerSecond *= -1.0;
+      state.angle = state.angle.rotateBy(Rotation2d.kPi);
+      cosError *= -1.0;
+    }
+    state.speedMetersPerSecond *= cosError;
+  }
+
   /** Runs the module with the specified output while controlling to zero degrees. */
   public void runCharacterization(double output) {
     io.setDriveOpenLoop(output);
     io.setTurnPosition(new Rotation2d());
   }
 
+  /** Runs the turn motor with the specified output while holding the drive motor still. */
+  public void runTurnCharacterization(double output) {
+    io.setDriveOpenLoop(0.0);
+    io.setTurnOpenLoop(output);
+  }
+
+  /** Changes how often the motor controllers send status frames. */
+  public void setStatusFrameProfile(StatusFrameProfile profile) {
+    io.setStatusFrameProfile(profile);
+  }
+
   /** Disables all outputs to motors. */
   public void stop() {
     io.setDriveOpenLoop(0.0);
@@ -127,4 +155,9 @@ public class Module {
   public double getFFCharacterizationVelocity() {
     return inputs.driveVelocityRadPerSec;
   }
+
+  /** Returns the turn velocity in rad/sec. */
+  public double getTurnFFCharacterizationVelocity() {
+    return inputs.turnVelocityRadPerSec;
+  }
 }
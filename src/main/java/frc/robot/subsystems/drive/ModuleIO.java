@@ -52,4 +52,7 @@ public interface ModuleIO {
 
   /** Run the turn motor to the specified rotation. */
   public default void setTurnPosition(Rotation2d rotation) {}
+
+  /** Changes how often the motor controllers send the status frames we read. */
+  public default void setStatusFrameProfile(StatusFrameProfile profile) {}
 }
@@ -15,7 +15,6 @@ package frc.robot.subsystems.drive;
 
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.spark.ClosedLoopSlot;
-import com.revrobotics.spark.SparkBase;
 import com.revrobotics.spark.SparkBase.ControlType;
 import com.revrobotics.spark.SparkBase.PersistMode;
 import com.revrobotics.spark.SparkBase.ResetMode;
@@ -29,6 +28,8 @@ import com.revrobotics.spark.config.SparkMaxConfig;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.filter.Debouncer;
 import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.util.CanBusBudget;
+import frc.robot.util.DeviceConfigurator;
 import frc.robot.util.SparkUtil;
 import frc.robot.util.ThriftyEncoder;
 import java.util.Queue;
@@ -40,10 +41,11 @@ import java.util.function.DoubleSupplier;
  */
 public class ModuleIOGyarados implements ModuleIO {
   private final Rotation2d zeroRotation;
+  private final String canDeviceName;
 
   // Hardware objects
-  private final SparkBase driveSpark;
-  private final SparkBase turnSpark;
+  private final SparkMax driveSpark;
+  private final SparkMax turnSpark;
   private final RelativeEncoder driveEncoder;
   private final RelativeEncoder turnRelativeEncoder;
   private final ThriftyEncoder turnAbsoluteEncoder;
@@ -62,6 +64,7 @@ public class ModuleIOGyarados implements ModuleIO {
   private final Debouncer turnConnectedDebounce = new Debouncer(0.5);
 
   public ModuleIOGyarados(int module) {
+    canDeviceName = "Module" + module;
     zeroRotation =
         switch (module) {
           case 0 -> DriveConstants.frontLeftZeroRotation;
@@ -124,22 +127,22 @@ public class ModuleIOGyarados implements ModuleIO {
         .pidf(
             DriveConstants.driveKp, 0.0,
             DriveConstants.driveKd, 0.0);
-    driveConfig
-        .signals
-        .primaryEncoderPositionAlwaysOn(true)
-        .primaryEncoderPositionPeriodMs((int) (1000.0 / DriveConstants.odometryFrequency))
-        .primaryEncoderVelocityAlwaysOn(true)
-        .primaryEncoderVelocityPeriodMs(20)
-        .appliedOutputPeriodMs(20)
-        .busVoltagePeriodMs(20)
-        .outputCurrentPeriodMs(20);
-    SparkUtil.tryUntilOk(
-        driveSpark,
-        5,
-        () ->
-            driveSpark.configure(
-                driveConfig, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters));
-    SparkUtil.tryUntilOk(driveSpark, 5, () -> driveEncoder.setPosition(0.0));
+    DriveConstants.statusFrameProfile.apply(driveConfig.signals);
+    DeviceConfigurator.getInstance()
+        .configureSpark(
+            canDeviceName + "Drive",
+            driveSpark,
+            driveConfig,
+            () ->
+                isConfigured(
+                    driveSpark,
+                    false,
+                    DriveConstants.driveMotorCurrentLimit,
+                    DriveConstants.driveEncoderPositionFactor,
+                    DriveConstants.driveEncoderVelocityFactor,
+                    DriveConstants.driveKp,
+                    DriveConstants.driveKd),
+            () -> SparkUtil.tryUntilOk(driveSpark, 5, () -> driveEncoder.setPosition(0.0)));
 
     // Configure turn motor
     var turnConfig = new SparkMaxConfig();
@@ -161,26 +164,28 @@ public class ModuleIOGyarados implements ModuleIO {
         .positionWrappingEnabled(true)
         .positionWrappingInputRange(DriveConstants.turnPIDMinInput, DriveConstants.turnPIDMaxInput)
         .pidf(DriveConstants.turnKp, 0.0, DriveConstants.turnKd, 0.0);
-    turnConfig
-        .signals
-        .primaryEncoderPositionAlwaysOn(true)
-        .primaryEncoderPositionPeriodMs((int) (1000.0 / DriveConstants.odometryFrequency))
-        .primaryEncoderVelocityAlwaysOn(true)
-        .primaryEncoderVelocityPeriodMs(20)
-        .appliedOutputPeriodMs(20)
-        .busVoltagePeriodMs(20)
-        .outputCurrentPeriodMs(20);
-
-    SparkUtil.tryUntilOk(
-        turnSpark,
-        5,
-        () ->
-            turnSpark.configure(
-                turnConfig, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters));
-
-    // The initial position of the turn motor should be set from the absolute magnetic encoder
-    SparkUtil.tryUntilOk(
-        turnSpark, 5, () -> turnRelativeEncoder.setPosition(turnAbsoluteEncoder.getPosition()));
+    DriveConstants.statusFrameProfile.apply(turnConfig.signals);
+    DeviceConfigurator.getInstance()
+        .configureSpark(
+            canDeviceName + "Turn",
+            turnSpark,
+            turnConfig,
+            () ->
+                isConfigured(
+                        turnSpark,
+                        DriveConstants.turnInverted,
+                        DriveConstants.turnMotorCurrentLimit,
+                        DriveConstants.turnEncoderPositionFactor,
+                        DriveConstants.turnEncoderVelocityFactor,
+                        DriveConstants.turnKp,
+                        DriveConstants.turnKd)
+                    && turnSpark.configAccessor.closedLoop.getPositionWrappingEnabled(),
+            // The initial position of the turn motor should be set from the absolute encoder
+            () ->
+                SparkUtil.tryUntilOk(
+                    turnSpark,
+                    5,
+                    () -> turnRelativeEncoder.setPosition(turnAbsoluteEncoder.getPosition())));
 
     // Create odometry queues
     timestampQueue = SparkOdometryThread.getInstance().makeTimestampQueue();
@@ -189,6 +194,8 @@ public class ModuleIOGyarados implements ModuleIO {
     turnPositionQueue =
         SparkOdometryThread.getInstance()
             .registerSignal(turnSpark, turnRelativeEncoder::getPosition);
+
+    reportCanFrames(DriveConstants.statusFrameProfile);
   }
 
   @Override
@@ -274,4 +281,49 @@ public class ModuleIOGyarados implements ModuleIO {
             DriveConstants.turnPIDMaxInput);
     turnController.setReference(setpoint, ControlType.kPosition);
   }
+
+  @Override
+  public void setStatusFrameProfile(StatusFrameProfile profile) {
+    // Only the signal periods, without waiting on the bus or touching flash
+    var config = new SparkMaxConfig();
+    profile.apply(config.signals);
+    driveSpark.configureAsync(
+        config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+    turnSpark.configureAsync(
+        config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+    reportCanFrames(profile);
+  }
+
+  /**
+   * Whether a Spark's parameters, read back from it, already match the ones both motors are
+   * configured with.
+   */
+  private static boolean isConfigured(
+      SparkMax spark,
+      boolean inverted,
+      int currentLimit,
+      double positionFactor,
+      double velocityFactor,
+      double kP,
+      double kD) {
+    var accessor = spark.configAccessor;
+    return accessor.getInverted() == inverted
+        && accessor.getIdleMode() == IdleMode.kBrake
+        && accessor.getSmartCurrentLimit() == currentLimit
+        && DeviceConfigurator.matches(accessor.getVoltageCompensation(), 12.0)
+        && DeviceConfigurator.matches(
+            accessor.encoder.getPositionConversionFactor(), positionFactor)
+        && DeviceConfigurator.matches(
+            accessor.encoder.getVelocityConversionFactor(), velocityFactor)
+        && accessor.encoder.getUvwMeasurementPeriod() == 10
+        && accessor.encoder.getUvwAverageDepth() == 2
+        && DeviceConfigurator.matches(accessor.closedLoop.getP(), kP)
+        && DeviceConfigurator.matches(accessor.closedLoop.getD(), kD);
+  }
+
+  private void reportCanFrames(StatusFrameProfile profile) {
+    CanBusBudget budget = CanBusBudget.getInstance();
+    budget.setFramesPerSec("rio", canDeviceName + "Drive", profile.getSparkFramesPerSec());
+    budget.setFramesPerSec("rio", canDeviceName + "Turn", profile.getSparkFramesPerSec());
+  }
 }
@@ -13,17 +13,13 @@
 
 package frc.robot.subsystems.drive;
 
-import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.system.plant.LinearSystemId;
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.subsystems.drive.SwerveChassisSim.SimModule;
 
-/** Physics sim implementation of module IO. */
+/** Physics sim implementation of module IO, driving one module of {@link SwerveChassisSim}. */
 public class ModuleIOSim implements ModuleIO {
-  private final DCMotorSim driveSim;
-  private final DCMotorSim turnSim;
+  private final SimModule moduleSim;
 
   private boolean driveClosedLoop = false;
   private boolean turnClosedLoop = false;
@@ -35,18 +31,8 @@ public class ModuleIOSim implements ModuleIO {
   private double driveAppliedVolts = 0.0;
   private double turnAppliedVolts = 0.0;
 
-  public ModuleIOSim() {
-    // Create drive and turn sim models
-    driveSim =
-        new DCMotorSim(
-            LinearSystemId.createDCMotorSystem(
-                DriveConstants.driveGearbox, 0.025, DriveConstants.driveMotorReduction),
-            DriveConstants.driveGearbox);
-    turnSim =
-        new DCMotorSim(
-            LinearSystemId.createDCMotorSystem(
-                DriveConstants.turnGearbox, 0.004, DriveConstants.turnMotorReduction),
-            DriveConstants.turnGearbox);
+  public ModuleIOSim(int index) {
+    moduleSim = SwerveChassisSim.getInstance().getModule(index);
 
     // Enable wrapping for turn PID
     turnController.enableContinuousInput(-Math.PI, Math.PI);
@@ -57,40 +43,37 @@ public class ModuleIOSim implements ModuleIO {
     // Run closed-loop control
     if (driveClosedLoop) {
       driveAppliedVolts =
-          driveFFVolts + driveController.calculate(driveSim.getAngularVelocityRadPerSec());
+          driveFFVolts + driveController.calculate(moduleSim.getDriveVelocityRadPerSec());
     } else {
       driveController.reset();
     }
     if (turnClosedLoop) {
-      turnAppliedVolts = turnController.calculate(turnSim.getAngularPositionRad());
+      turnAppliedVolts = turnController.calculate(moduleSim.getTurnPosition().getRadians());
     } else {
       turnController.reset();
     }
 
-    // Update simulation state
-    driveSim.setInputVoltage(MathUtil.clamp(driveAppliedVolts, -12.0, 12.0));
-    turnSim.setInputVoltage(MathUtil.clamp(turnAppliedVolts, -12.0, 12.0));
-    driveSim.update(0.02);
-    turnSim.update(0.02);
+    // Applied when the chassis sim steps, at the end of the loop
+    moduleSim.setInputVoltages(driveAppliedVolts, turnAppliedVolts);
 
     // Update drive inputs
     inputs.driveConnected = true;
-    inputs.drivePositionRad = driveSim.getAngularPositionRad();
-    inputs.driveVelocityRadPerSec = driveSim.getAngularVelocityRadPerSec();
+    inputs.drivePositionRad = moduleSim.getDrivePositionRad();
+    inputs.driveVelocityRadPerSec = moduleSim.getDriveVelocityRadPerSec();
     inputs.driveAppliedVolts = driveAppliedVolts;
-    inputs.driveCurrentAmps = Math.abs(driveSim.getCurrentDrawAmps());
+    inputs.driveCurrentAmps = moduleSim.getDriveCurrentAmps();
 
     // Update turn inputs
     inputs.turnConnected = true;
-    inputs.turnPosition = new Rotation2d(turnSim.getAngularPositionRad());
-    inputs.turnVelocityRadPerSec = turnSim.getAngularVelocityRadPerSec();
+    inputs.turnPosition = moduleSim.getTurnPosition();
+    inputs.turnVelocityRadPerSec = moduleSim.getTurnVelocityRadPerSec();
     inputs.turnAppliedVolts = turnAppliedVolts;
-    inputs.turnCurrentAmps = Math.abs(turnSim.getCurrentDrawAmps());
+    inputs.turnCurrentAmps = moduleSim.getTurnCurrentAmps();
 
-    // Update odometry inputs (50Hz because high-frequency odometry in sim doesn't matter)
-    inputs.odometryTimestamps = new double[] {Timer.getFPGATimestamp()};
-    inputs.odometryDrivePositionsRad = new double[] {inputs.drivePositionRad};
-    inputs.odometryTurnPositions = new Rotation2d[] {inputs.turnPosition};
+    // Update odometry inputs, sampled at the same rate as the odometry thread on the robot
+    inputs.odometryTimestamps = SwerveChassisSim.getInstance().getSampleTimestamps();
+    inputs.odometryDrivePositionsRad = moduleSim.getSampleDrivePositionsRad();
+    inputs.odometryTurnPositions = moduleSim.getSampleTurnPositions();
   }
 
   @Override
@@ -0,0 +1,61 @@
+package frc.robot.subsystems.drive;
+
+import com.revrobotics.spark.config.SignalsConfig;
+import frc.robot.Constants;
+
+/**
+ * How often each module Spark sends the status frames we read, switchable at runtime with {@link
+ * Drive#setStatusFrameProfile}.
+ *
+ * <p>A Spark packs its signals into frames, and a frame goes out at the fastest period of any
+ * signal in it. The encoder frame carries position and velocity together and always runs at the
+ * odometry rate, since {@link SparkOdometryThread} samples position. The output frame carries
+ * applied output, bus voltage and current, which are only logged, and the faults frame is never
+ * read at all, so those two are what a profile trades away.
+ */
+public enum StatusFrameProfile {
+  /** Just what driving needs. The output frame slows to a rate that's still fine for logs. */
+  COMPETITION(100, 500),
+
+  /** Output every loop, for watching currents and voltages in the pit. */
+  DIAGNOSTICS(20, 250),
+
+  /** Output at the odometry rate, so SysId and characterization runs see every change. */
+  CHARACTERIZATION(encoderPeriodMs(), 250);
+
+  private final int outputPeriodMs;
+  private final int faultsPeriodMs;
+
+  private StatusFrameProfile(int outputPeriodMs, int faultsPeriodMs) {
+    this.outputPeriodMs = outputPeriodMs;
+    this.faultsPeriodMs = faultsPeriodMs;
+  }
+
+  /** Sets the periods of every signal we read. Other signals are left alone. */
+  public void apply(SignalsConfig signals) {
+    signals
+        .primaryEncoderPositionAlwaysOn(true)
+        .primaryEncoderPositionPeriodMs(encoderPeriodMs())
+        .primaryEncoderVelocityAlwaysOn(true)
+        .primaryEncoderVelocityPeriodMs(encoderPeriodMs())
+        .appliedOutputPeriodMs(outputPeriodMs)
+        .busVoltagePeriodMs(outputPeriodMs)
+        .outputCurrentPeriodMs(outputPeriodMs)
+        .faultsPeriodMs(faultsPeriodMs)
+        .warningsPeriodMs(faultsPeriodMs);
+  }
+
+  /**
+   * Frames per second on the bus for one Spark, counting the setpoint the RIO sends it every loop.
+   */
+  public double getSparkFramesPerSec() {
+    return 1000.0 / encoderPeriodMs()
+        + 1000.0 / outputPeriodMs
+        + 1000.0 / faultsPeriodMs
+        + 1.0 / Constants.loopPeriodSecs;
+  }
+
+  private static int encoderPeriodMs() {
+    return (int) (1000.0 / DriveConstants.odometryFrequency);
+  }
+}
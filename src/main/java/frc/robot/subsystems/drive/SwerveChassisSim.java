@@ -0,0 +1,315 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants;
+import frc.robot.util.SimNoise;
+import frc.robot.util.VirtualSubsystem;
+import java.util.Arrays;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Rigid body physics for the simulated robot.
+ *
+ * <p>Each drive motor turns its wheel, and friction between the tire and the carpet pushes the
+ * chassis. That friction is limited by the module's share of the robot's weight, so wheels slip
+ * when the motors ask for more than the carpet can give, and the encoders drift away from where the
+ * robot actually is. {@link ModuleIOSim} and {@link GyroIOSim} read their sensors from here.
+ *
+ * <p>The whole robot is stepped once per loop in {@link #simulationPeriodic()}. Sensors are
+ * sampled at {@link DriveConstants#odometryFrequency} within the loop, like the odometry thread on
+ * the robot, and physics runs in a few shorter steps per sample so tire friction stays stable.
+ */
+public class SwerveChassisSim extends VirtualSubsystem {
+  private static final int samplesPerLoop =
+      (int) Math.round(DriveConstants.odometryFrequency * Constants.loopPeriodSecs);
+  private static final int stepsPerSample = 3;
+  private static final double gravity = 9.81;
+
+  private static final String logRoot = "SimChassis/";
+  private static final String poseKey = logRoot + "Pose";
+  private static final String slipKey = logRoot + "WheelSlipMetersPerSec";
+
+  private static SwerveChassisSim instance = null;
+
+  /** One module's motors and wheel. */
+  public static class SimModule {
+    private final Translation2d location;
+    private final DCMotorSim turnSim =
+        new DCMotorSim(
+            LinearSystemId.createDCMotorSystem(
+                DriveConstants.turnGearbox,
+                DriveConstants.turnSimMOI,
+                DriveConstants.turnMotorReduction),
+            DriveConstants.turnGearbox);
+
+    private double driveAppliedVolts = 0.0;
+    private double drivePositionRad = 0.0;
+    private double driveVelocityRadPerSec = 0.0;
+    private double driveCurrentAmps = 0.0;
+    private double slipMetersPerSec = 0.0;
+    private double groundScale = 1.0;
+
+    private final double[] sampleDrivePositionsRad = new double[samplesPerLoop];
+    private final Rotation2d[] sampleTurnPositions = new Rotation2d[samplesPerLoop];
+    private int sampleCount = 0;
+
+    private SimModule(Translation2d location) {
+      this.location = location;
+    }
+
+    /** Sets the motor voltages used for the next loop. */
+    public void setInputVoltages(double driveVolts, double turnVolts) {
+      driveAppliedVolts = MathUtil.clamp(driveVolts, -12.0, 12.0);
+      turnSim.setInputVoltage(MathUtil.clamp(turnVolts, -12.0, 12.0));
+    }
+
+    public double getDrivePositionRad() {
+      return drivePositionRad;
+    }
+
+    public double getDriveVelocityRadPerSec() {
+      return driveVelocityRadPerSec;
+    }
+
+    public double getDriveCurrentAmps() {
+      return Math.abs(driveCurrentAmps);
+    }
+
+    public Rotation2d getTurnPosition() {
+      return new Rotation2d(turnSim.getAngularPositionRad());
+    }
+
+    public double getTurnVelocityRadPerSec() {
+      return turnSim.getAngularVelocityRadPerSec();
+    }
+
+    public double getTurnCurrentAmps() {
+      return Math.abs(turnSim.getCurrentDrawAmps());
+    }
+
+    /** Drive positions sampled during the last loop, matching {@link #getSampleTimestamps()}. */
+    public double[] getSampleDrivePositionsRad() {
+      return Arrays.copyOf(sampleDrivePositionsRad, sampleCount);
+    }
+
+    public Rotation2d[] getSampleTurnPositions() {
+      return Arrays.copyOf(sampleTurnPositions, sampleCount);
+    }
+  }
+
+  private final SimModule[] modules = new SimModule[DriveConstants.moduleTranslations.length];
+  private final double[] slips = new double[modules.length];
+  private final double[] sampleTimestamps = new double[samplesPerLoop];
+  private final double[] sampleHeadingsRad = new double[samplesPerLoop];
+  private int sampleCount = 0;
+
+  // Field relative
+  private double x = 0.0;
+  private double y = 0.0;
+  private double headingRad = 0.0;
+  private double velocityX = 0.0;
+  private double velocityY = 0.0;
+  private double yawRateRadPerSec = 0.0;
+
+  // Robot relative
+  private double accelerationX = 0.0;
+  private double accelerationY = 0.0;
+
+  public static SwerveChassisSim getInstance() {
+    if (instance == null) {
+      instance = new SwerveChassisSim();
+    }
+    return instance;
+  }
+
+  private SwerveChassisSim() {
+    for (int i = 0; i < modules.length; i++) {
+      modules[i] = new SimModule(DriveConstants.moduleTranslations[i]);
+    }
+  }
+
+  public SimModule getModule(int index) {
+    return modules[index];
+  }
+
+  /** Where the simulated robot actually is, as opposed to where its encoders say it is. */
+  public Pose2d getPose() {
+    return new Pose2d(x, y, new Rotation2d(headingRad));
+  }
+
+  public double getHeadingRad() {
+    return headingRad;
+  }
+
+  /** When each sensor sample was taken during the last loop, in FPGA seconds. */
+  public double[] getSampleTimestamps() {
+    return Arrays.copyOf(sampleTimestamps, sampleCount);
+  }
+
+  public double[] getSampleHeadingsRad() {
+    return Arrays.copyOf(sampleHeadingsRad, sampleCount);
+  }
+
+  public double getYawRateRadPerSec() {
+    return yawRateRadPerSec;
+  }
+
+  /** Robot relative acceleration in Gs, as an IMU would measure it. */
+  public double getAccelerationXGs() {
+    return accelerationX / gravity;
+  }
+
+  public double getAccelerationYGs() {
+    return accelerationY / gravity;
+  }
+
+  /** Places the robot at rest at the given pose. */
+  public void resetPose(Pose2d pose) {
+    x = pose.getX();
+    y = pose.getY();
+    headingRad = pose.getRotation().getRadians();
+    velocityX = 0.0;
+    velocityY = 0.0;
+    yawRateRadPerSec = 0.0;
+    for (SimModule module : modules) {
+      module.driveVelocityRadPerSec = 0.0;
+    }
+  }
+
+  @Override
+  public void periodic() {
+    Logger.recordOutput(poseKey, getPose());
+    for (int i = 0; i < modules.length; i++) {
+      slips[i] = modules[i].slipMetersPerSec;
+    }
+    Logger.recordOutput(slipKey, slips);
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].groundScale = SimNoise.getInstance().getWheelGroundScale(i);
+    }
+
+    // The loop that reads these samples starts one period from now
+    double startTime = Timer.getFPGATimestamp();
+    double samplePeriod = Constants.loopPeriodSecs / samplesPerLoop;
+    double dt = samplePeriod / stepsPerSample;
+    for (int sample = 0; sample < samplesPerLoop; sample++) {
+      for (int step = 0; step < stepsPerSample; step++) {
+        for (SimModule module : modules) {
+          module.turnSim.update(dt);
+        }
+        step(dt);
+      }
+
+      sampleTimestamps[sample] =
+          startTime
+              + (sample + 1) * samplePeriod
+              + SimNoise.getInstance().getOdometryTimestampJitterSecs(samplePeriod);
+      sampleHeadingsRad[sample] = headingRad;
+      for (SimModule module : modules) {
+        module.sampleDrivePositionsRad[sample] = module.drivePositionRad;
+        module.sampleTurnPositions[sample] = module.getTurnPosition();
+      }
+    }
+    sampleCount = samplesPerLoop;
+    for (SimModule module : modules) {
+      module.sampleCount = samplesPerLoop;
+    }
+  }
+
+  private void step(double dt) {
+    double cos = Math.cos(headingRad);
+    double sin = Math.sin(headingRad);
+    double maxFriction =
+        DriveConstants.wheelCOF * DriveConstants.robotMassKg * gravity / modules.length;
+
+    double forceX = 0.0;
+    double forceY = 0.0;
+    double torque = 0.0;
+    for (SimModule module : modules) {
+      // Module location and wheel direction in field coordinates
+      double locationX = module.location.getX() * cos - module.location.getY() * sin;
+      double locationY = module.location.getX() * sin + module.location.getY() * cos;
+      double wheelAngle = headingRad + module.turnSim.getAngularPositionRad();
+      double wheelX = Math.cos(wheelAngle);
+      double wheelY = Math.sin(wheelAngle);
+
+      // How fast the carpet under the wheel is moving, along and across the wheel
+      double patchX = velocityX - yawRateRadPerSec * locationY;
+      double patchY = velocityY + yawRateRadPerSec * locationX;
+      double rollingVelocity = patchX * wheelX + patchY * wheelY;
+      double lateralVelocity = -patchX * wheelY + patchY * wheelX;
+
+      double radius = DriveConstants.wheelRadiusMeters * module.groundScale;
+      double motorCurrent =
+          MathUtil.clamp(
+              DriveConstants.driveGearbox.getCurrent(
+                  module.driveVelocityRadPerSec * DriveConstants.driveMotorReduction,
+                  module.driveAppliedVolts),
+              -DriveConstants.driveMotorCurrentLimit,
+              DriveConstants.driveMotorCurrentLimit);
+      double wheelTorque =
+          DriveConstants.driveGearbox.getTorque(motorCurrent) * DriveConstants.driveMotorReduction;
+      module.driveCurrentAmps = motorCurrent;
+
+      // Friction that would stop the tire slipping within this step, given how much it
+      // accelerates both the wheel and the chassis
+      double slip = module.driveVelocityRadPerSec * radius - rollingVelocity;
+      double rollingForce =
+          (slip / dt + wheelTorque * radius / DriveConstants.driveSimMOI)
+              / (radius * radius / DriveConstants.driveSimMOI
+                  + inverseMass(locationX * wheelY - locationY * wheelX));
+      double lateralForce =
+          -lateralVelocity / dt / inverseMass(locationX * wheelX + locationY * wheelY);
+
+      // Past the friction circle the tire slides instead
+      double totalForce = Math.hypot(rollingForce, lateralForce);
+      if (totalForce > maxFriction) {
+        rollingForce *= maxFriction / totalForce;
+        lateralForce *= maxFriction / totalForce;
+      }
+      module.slipMetersPerSec = slip;
+
+      module.driveVelocityRadPerSec +=
+          (wheelTorque - rollingForce * radius) / DriveConstants.driveSimMOI * dt;
+      module.drivePositionRad += module.driveVelocityRadPerSec * dt;
+
+      double moduleForceX = rollingForce * wheelX - lateralForce * wheelY;
+      double moduleForceY = rollingForce * wheelY + lateralForce * wheelX;
+      forceX += moduleForceX;
+      forceY += moduleForceY;
+      torque += locationX * moduleForceY - locationY * moduleForceX;
+    }
+
+    double fieldAccelerationX = forceX / DriveConstants.robotMassKg;
+    double fieldAccelerationY = forceY / DriveConstants.robotMassKg;
+    accelerationX = fieldAccelerationX * cos + fieldAccelerationY * sin;
+    accelerationY = -fieldAccelerationX * sin + fieldAccelerationY * cos;
+
+    velocityX += fieldAccelerationX * dt;
+    velocityY += fieldAccelerationY * dt;
+    yawRateRadPerSec += torque / DriveConstants.robotMOI * dt;
+    x += velocityX * dt;
+    y += velocityY * dt;
+    headingRad = MathUtil.angleModulus(headingRad + yawRateRadPerSec * dt);
+  }
+
+  /**
+   * How much one newton at a tire accelerates its contact patch in the given direction, when all
+   * four tires push together.
+   *
+   * @param lever Distance from the robot's center to the line of the force
+   */
+  private double inverseMass(double lever) {
+    return modules.length
+        * (1.0 / DriveConstants.robotMassKg + lever * lever / DriveConstants.robotMOI);
+  }
+}
@@ -1,5 +1,46 @@
 package frc.robot.subsystems.quest;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.util.struct.StructSerializable;
+import java.util.Objects;
 
-public record TimestampedPose(Pose2d pose, double timestamp) {}
+/**
+ * A pose and the FPGA timestamp it was measured at. Logged through {@link TimestampedPoseStruct};
+ * the accessors and value semantics match the record it used to be.
+ */
+public final class TimestampedPose implements StructSerializable {
+  public static final TimestampedPoseStruct struct = new TimestampedPoseStruct();
+
+  private final Pose2d pose;
+  private final double timestamp;
+
+  public TimestampedPose(Pose2d pose, double timestamp) {
+    this.pose = pose;
+    this.timestamp = timestamp;
+  }
+
+  public Pose2d pose() {
+    return pose;
+  }
+
+  public double timestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof TimestampedPose other
+        && pose.equals(other.pose)
+        && Double.compare(timestamp, other.timestamp) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(pose, timestamp);
+  }
+
+  @Override
+  public String toString() {
+    return "TimestampedPose[pose=" + pose + ", timestamp=" + timestamp + "]";
+  }
+}
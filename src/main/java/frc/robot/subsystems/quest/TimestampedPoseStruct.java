@@ -0,0 +1,51 @@
+package frc.robot.subsystems.quest;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.util.struct.Struct;
+import java.nio.ByteBuffer;
+
+/** Fixed-size struct for {@link TimestampedPose}. */
+public class TimestampedPoseStruct implements Struct<TimestampedPose> {
+  @Override
+  public Class<TimestampedPose> getTypeClass() {
+    return TimestampedPose.class;
+  }
+
+  @Override
+  public String getTypeName() {
+    return "TimestampedPose";
+  }
+
+  @Override
+  public int getSize() {
+    return Pose2d.struct.getSize() + kSizeDouble;
+  }
+
+  @Override
+  public String getSchema() {
+    return "Pose2d pose;double timestamp";
+  }
+
+  @Override
+  public Struct<?>[] getNested() {
+    return new Struct<?>[] {Pose2d.struct};
+  }
+
+  @Override
+  public TimestampedPose unpack(ByteBuffer bb) {
+    Pose2d pose = Pose2d.struct.unpack(bb);
+    double timestamp = bb.getDouble();
+    return new TimestampedPose(pose, timestamp);
+  }
+
+  @Override
+  public void pack(ByteBuffer bb, TimestampedPose value) {
+    Pose2d.struct.pack(bb, value.pose());
+    bb.putDouble(value.timestamp());
+  }
+
+  @Override
+  public boolean isImmutable() {
+    return true;
+  }
+}
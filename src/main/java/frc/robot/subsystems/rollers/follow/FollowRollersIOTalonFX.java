@@ -18,6 +18,8 @@ import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Temperature;
 import edu.wpi.first.units.measure.Voltage;
 import frc.robot.Constants;
+import frc.robot.util.CanBusBudget;
+import frc.robot.util.DeviceConfigurator;
 
 public class FollowRollersIOTalonFX implements FollowRollersIO {
   private final TalonFX leader;
@@ -119,9 +121,33 @@ public class FollowRollersIOTalonFX implements FollowRollersIO {
         velocitySetpointRotationsPerSec);
     leader.optimizeBusUtilization(0.0, 1.0);
     follower.optimizeBusUtilization(0.0, 1.0);
-
-    leader.getConfigurator().apply(cfg);
-    follower.getConfigurator().apply(cfg);
+    CanBusBudget budget = CanBusBudget.getInstance();
+    budget.setFramesPerSec(
+        Constants.alternateCanBus,
+        "TalonFX" + leaderCanId,
+        CanBusBudget.getFramesPerSec(
+            leaderPosition,
+            leaderVelocity,
+            leaderVoltage,
+            leaderSupplyCurrentAmps,
+            leaderTorqueCurrentAmps,
+            leaderTempCelsius,
+            positionSetpointRotations,
+            velocitySetpointRotationsPerSec));
+    budget.setFramesPerSec(
+        Constants.alternateCanBus,
+        "TalonFX" + followerCanId,
+        CanBusBudget.getFramesPerSec(
+            followerPosition,
+            followerVelocity,
+            followerVoltage,
+            followerSupplyCurrentAmps,
+            followerTorqueCurrentAmps,
+            followerTempCelsius));
+
+    DeviceConfigurator configurator = DeviceConfigurator.getInstance();
+    configurator.configureTalonFX("TalonFX" + leaderCanId, leader, cfg);
+    configurator.configureTalonFX("TalonFX" + followerCanId, follower, cfg);
   }
 
   @Override
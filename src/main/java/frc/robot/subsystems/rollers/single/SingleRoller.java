@@ -1,10 +1,21 @@
 package frc.robot.subsystems.rollers.single;
 
+import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
+import frc.robot.commands.CharacterizationCommands;
+import frc.robot.util.SysIdAnalyzer;
 import org.littletonrobotics.junction.Logger;
 
 public class SingleRoller {
+  // For feedforward characterization
+  private static final double rampVoltsPerSec = 0.25;
+  private static final double minVelocity = 0.05; // Rotations/Sec
+  private static final double minVelocitySpan = 5.0; // Rotations/Sec
+
   protected final String name;
   protected final SingleRollerIO io;
 
@@ -36,4 +47,38 @@ public class SingleRoller {
   public void stop() {
     io.stop();
   }
+
+  public double getPositionRotations() {
+    return inputs.positionRotations;
+  }
+
+  public double getVelocityRotationsPerSec() {
+    return inputs.velocityRotationsPerSec;
+  }
+
+  /** Ramps the voltage up and fits the feedforward, ending once the fit converges. */
+  public Command feedforwardCharacterization() {
+    return CharacterizationCommands.feedforward(
+        name,
+        this::runVolts,
+        this::getVelocityRotationsPerSec,
+        rampVoltsPerSec,
+        minVelocity,
+        minVelocitySpan);
+  }
+
+  /**
+   * Makes a SysId routine that fits gains on the robot as its tests run. Rollers aren't subsystems,
+   * so the subsystem that owns this one runs it. Arms are assumed to be at zero rotations when
+   * horizontal.
+   */
+  public SysIdRoutine createSysIdRoutine(SysIdAnalyzer.Mechanism mechanism, Subsystem subsystem) {
+    return new SysIdAnalyzer(name, mechanism)
+        .createRoutine(
+            new SysIdRoutine.Config(),
+            this::runVolts,
+            () -> Units.rotationsToRadians(getPositionRotations()),
+            this::getVelocityRotationsPerSec,
+            subsystem);
+  }
 }
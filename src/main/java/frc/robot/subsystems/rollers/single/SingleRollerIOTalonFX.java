@@ -17,6 +17,8 @@ import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Temperature;
 import edu.wpi.first.units.measure.Voltage;
 import frc.robot.Constants;
+import frc.robot.util.CanBusBudget;
+import frc.robot.util.DeviceConfigurator;
 
 public class SingleRollerIOTalonFX implements SingleRollerIO {
   private final TalonFX talon;
@@ -87,8 +89,21 @@ public class SingleRollerIOTalonFX implements SingleRollerIO {
         positionSetpointRotations,
         velocitySetpointRotationsPerSec);
     talon.optimizeBusUtilization(0.0, 1.0);
+    CanBusBudget.getInstance()
+        .setFramesPerSec(
+            Constants.alternateCanBus,
+            "TalonFX" + canId,
+            CanBusBudget.getFramesPerSec(
+                position,
+                velocity,
+                voltage,
+                supplyCurrentAmps,
+                torqueCurrentAmps,
+                tempCelsius,
+                positionSetpointRotations,
+                velocitySetpointRotationsPerSec));
 
-    talon.getConfigurator().apply(cfg);
+    DeviceConfigurator.getInstance().configureTalonFX("TalonFX" + canId, talon, cfg);
   }
 
   @Override
@@ -61,8 +61,12 @@ public class AprilTagIOPhoton implements AprilTagIO {
 
   @Override
   public void updateInputs(AprilTagIOInputs inputs) {
-    List<PhotonPipelineResult> unreadResults = camera.getAllUnreadResults();
+    processResults(camera.getAllUnreadResults(), inputs);
+    inputs.connected = camera.isConnected();
+  }
 
+  /** Converts pipeline results to inputs, separate so recorded results can be benchmarked. */
+  void processResults(List<PhotonPipelineResult> unreadResults, AprilTagIOInputs inputs) {
     // List<PoseObservation> allLocalizedPoseObservations = new ArrayList<>();
     // List<PhotonTrackedTarget> allTargets = List.of();
     List<Translation2d> validCorners = new ArrayList<>();
@@ -222,8 +226,6 @@ public class AprilTagIOPhoton implements AprilTagIO {
       }
     }
 
-    inputs.connected = camera.isConnected();
-
     inputs.validCorners = validCorners.toArray(Translation2d[]::new);
     inputs.rejectedCorners = rejectedCorners.toArray(Translation2d[]::new);
 
@@ -2,7 +2,10 @@ package frc.robot.subsystems.vision;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj.smartdashboard.FieldObject2d;
+import frc.robot.Constants;
+import frc.robot.Constants.SimFidelity;
 import frc.robot.field.FieldConstants.AprilTagStruct;
+import frc.robot.util.SimNoise;
 import java.util.List;
 import java.util.function.Supplier;
 import org.photonvision.simulation.PhotonCameraSim;
@@ -18,11 +21,18 @@ public class AprilTagIOPhotonSim extends AprilTagIOPhoton {
       SimCameraConfig config) {
     super(source, constrainedTargets, headingSupplier);
 
-    SimCameraProperties props = config.apply(new SimCameraProperties());
+    SimCameraProperties props =
+        SimNoise.getInstance()
+            .apply(config.forFidelity(Constants.simFidelity))
+            .apply(new SimCameraProperties());
 
     cameraSim = new PhotonCameraSim(camera, props, VisionConstants.fieldLayout);
 
-    cameraSim.enableDrawWireframe(true);
+    // Rendering and streaming frames is most of the cost of a camera sim
+    boolean render = Constants.simFidelity == SimFidelity.FULL;
+    cameraSim.enableDrawWireframe(render);
+    cameraSim.enableRawStream(render);
+    cameraSim.enableProcessedStream(render);
     cameraSim.setMaxSightRange(10.0);
     cameraSim.setWireframeResolution(1);
 
@@ -4,12 +4,99 @@ import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.util.struct.StructSerializable;
 import frc.robot.subsystems.vision.VisionConstants.PoseEstimationMethod;
+import java.util.Arrays;
+import java.util.Objects;
 
-public record PoseObservation(
-    Pose3d robotPose,
-    double timestampSeconds,
-    double ambiguity,
-    int id,
-    Matrix<N3, N1> stdDevs,
-    PoseEstimationMethod method) {}
+/**
+ * A single vision pose estimate.
+ *
+ * <p>This is a class rather than a record so AdvantageKit logs it through the hand-written {@link
+ * PoseObservationStruct} instead of generating a struct through reflection. The accessors, {@code
+ * equals}, {@code hashCode} and {@code toString} keep the record behavior, with the std devs
+ * compared by value.
+ */
+public final class PoseObservation implements StructSerializable {
+  public static final PoseObservationStruct struct = new PoseObservationStruct();
+
+  private final Pose3d robotPose;
+  private final double timestampSeconds;
+  private final double ambiguity;
+  private final int id;
+  private final Matrix<N3, N1> stdDevs;
+  private final PoseEstimationMethod method;
+
+  public PoseObservation(
+      Pose3d robotPose,
+      double timestampSeconds,
+      double ambiguity,
+      int id,
+      Matrix<N3, N1> stdDevs,
+      PoseEstimationMethod method) {
+    this.robotPose = robotPose;
+    this.timestampSeconds = timestampSeconds;
+    this.ambiguity = ambiguity;
+    this.id = id;
+    this.stdDevs = stdDevs;
+    this.method = method;
+  }
+
+  public Pose3d robotPose() {
+    return robotPose;
+  }
+
+  public double timestampSeconds() {
+    return timestampSeconds;
+  }
+
+  public double ambiguity() {
+    return ambiguity;
+  }
+
+  public int id() {
+    return id;
+  }
+
+  public Matrix<N3, N1> stdDevs() {
+    return stdDevs;
+  }
+
+  public PoseEstimationMethod method() {
+    return method;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof PoseObservation other
+        && robotPose.equals(other.robotPose)
+        && Double.compare(timestampSeconds, other.timestampSeconds) == 0
+        && Double.compare(ambiguity, other.ambiguity) == 0
+        && id == other.id
+        && Arrays.equals(stdDevs.getData(), other.stdDevs.getData())
+        && method == other.method;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        robotPose, timestampSeconds, ambiguity, id, Arrays.hashCode(stdDevs.getData()), method);
+  }
+
+  @Override
+  public String toString() {
+    return "PoseObservation[robotPose="
+        + robotPose
+        + ", timestampSeconds="
+        + timestampSeconds
+        + ", ambiguity="
+        + ambiguity
+        + ", id="
+        + id
+        + ", stdDevs="
+        + Arrays.toString(stdDevs.getData())
+        + ", method="
+        + method
+        + "]";
+  }
+}
@@ -0,0 +1,82 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.util.struct.Struct;
+import frc.robot.subsystems.vision.VisionConstants.PoseEstimationMethod;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size struct for {@link PoseObservation}. The std devs are flattened to three doubles and
+ * the estimation method is packed into a single byte.
+ */
+public class PoseObservationStruct implements Struct<PoseObservation> {
+  private static final PoseEstimationMethod[] methods = PoseEstimationMethod.values();
+
+  @Override
+  public Class<PoseObservation> getTypeClass() {
+    return PoseObservation.class;
+  }
+
+  @Override
+  public String getTypeName() {
+    return "PoseObservation";
+  }
+
+  @Override
+  public int getSize() {
+    return Pose3d.struct.getSize() + kSizeDouble * 2 + kSizeInt32 + kSizeDouble * 3 + kSizeInt8;
+  }
+
+  @Override
+  public String getSchema() {
+    StringBuilder methodEnum = new StringBuilder("enum {");
+    for (PoseEstimationMethod method : methods) {
+      if (method.ordinal() > 0) {
+        methodEnum.append(", ");
+      }
+      methodEnum.append(method.name()).append('=').append(method.ordinal());
+    }
+    methodEnum.append("} int8 method");
+
+    return "Pose3d robotPose;double timestampSeconds;double ambiguity;int32 id;"
+        + "double stdDevX;double stdDevY;double stdDevTheta;"
+        + methodEnum;
+  }
+
+  @Override
+  public Struct<?>[] getNested() {
+    return new Struct<?>[] {Pose3d.struct};
+  }
+
+  @Override
+  public PoseObservation unpack(ByteBuffer bb) {
+    Pose3d robotPose = Pose3d.struct.unpack(bb);
+    double timestampSeconds = bb.getDouble();
+    double ambiguity = bb.getDouble();
+    int id = bb.getInt();
+    double stdDevX = bb.getDouble();
+    double stdDevY = bb.getDouble();
+    double stdDevTheta = bb.getDouble();
+    PoseEstimationMethod method = methods[bb.get()];
+    return new PoseObservation(
+        robotPose,
+        timestampSeconds,
+        ambiguity,
+        id,
+        VecBuilder.fill(stdDevX, stdDevY, stdDevTheta),
+        method);
+  }
+
+  @Override
+  public void pack(ByteBuffer bb, PoseObservation value) {
+    Pose3d.struct.pack(bb, value.robotPose());
+    bb.putDouble(value.timestampSeconds());
+    bb.putDouble(value.ambiguity());
+    bb.putInt(value.id());
+    bb.putDouble(value.stdDevs().get(0, 0));
+    bb.putDouble(value.stdDevs().get(1, 0));
+    bb.putDouble(value.stdDevs().get(2, 0));
+    bb.put((byte) value.method().ordinal());
+  }
+}
@@ -1,6 +1,7 @@
 package frc.robot.subsystems.vision;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.Constants.SimFidelity;
 import org.photonvision.simulation.SimCameraProperties;
 
 public record SimCameraConfig(Calibration calib, CalibrationError calibError, Latency latency) {
@@ -20,6 +21,25 @@ public record SimCameraConfig(Calibration calib, CalibrationError calibError, La
     return props;
   }
 
+  /**
+   * Returns this config as simulated at the given fidelity. Fast sims use a lower resolution with
+   * the same field of view and pixel error scaled to match, and a capped frame rate.
+   */
+  public SimCameraConfig forFidelity(SimFidelity fidelity) {
+    if (fidelity == SimFidelity.FULL) {
+      return this;
+    }
+    double scale = VisionConstants.fastSimResolutionScale;
+    return new SimCameraConfig(
+        new Calibration(
+            (int) (calib.widthPx * scale),
+            (int) (calib.heightPx * scale),
+            calib.fov,
+            Math.min(calib.fps, VisionConstants.fastSimMaxFps)),
+        new CalibrationError(calibError.avgErrorPx * scale, calibError.errorStdDevPx * scale),
+        latency);
+  }
+
   /** Default simulated camera configuration for a Thrify Cam * */
   public static SimCameraConfig THRIFTY_CAM_STOCK =
       new SimCameraConfig(
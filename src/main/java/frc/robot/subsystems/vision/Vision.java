@@ -4,11 +4,17 @@ import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Constants;
+import frc.robot.Constants.SimFidelity;
 import frc.robot.bobot_state.BobotState;
 import frc.robot.field.FieldUtils;
+import frc.robot.subsystems.drive.SwerveChassisSim;
 import frc.robot.subsystems.vision.VisionConstants.AprilTagCameraConfig;
 import frc.robot.subsystems.vision.VisionConstants.PoseEstimationMethod;
+import frc.robot.util.LogKeys;
+import frc.robot.util.LogVerbosity;
+import frc.robot.util.LogVerbosity.Group;
 import frc.robot.util.VirtualSubsystem;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,52 +26,99 @@ public class Vision extends VirtualSubsystem {
       AprilTagIO io,
       AprilTagIOInputsAutoLogged inputs,
       VisionSource source,
+      String inputsKey,
       Alert disconnectedAlert) {}
 
   private final List<AprilTagCamera> aprilTagCameras = new ArrayList<>();
 
   private static final String aprilTagLogRoot = "AprilTagCamera";
-  private static final String aggregateAprilTagLogRoot = "AggregateAprilTagCameras";
+  private static final LogKeys aprilTagKeys = LogKeys.root(aprilTagLogRoot);
+
+  private static final String aggregateLogRoot = "AggregateAprilTagCameras/";
+  private static final String validCornersKey = aggregateLogRoot + "ValidCorners";
+  private static final String rejectedCornersKey = aggregateLogRoot + "RejectedCorners";
+  private static final String validIdsKey = aggregateLogRoot + "ValidIds";
+  private static final String rejectedIdsKey = aggregateLogRoot + "RejectedIds";
+  private static final String validPoseObservationsKey = aggregateLogRoot + "ValidPoseObservations";
+  private static final String rejectedPoseObservationsKey =
+      aggregateLogRoot + "RejectedPoseObservations";
+  private static final String validPosesKey = aggregateLogRoot + "ValidPoses";
+  private static final String rejectedPosesKey = aggregateLogRoot + "RejectedPoses";
+  private static final String validAprilTagPosesKey = aggregateLogRoot + "ValidAprilTagPoses";
+  private static final String rejectedAprilTagPosesKey = aggregateLogRoot + "RejectedAprilTagPoses";
+
+  private static final String simUpdateMsKey = "AprilTagSim/UpdateMS";
+
+  // Fast camera sims only update when at least one camera has a frame due
+  private double simUpdatePeriodSecs = 0.0;
+  private double nextSimUpdateTime = 0.0;
 
   public Vision() {
-    for (AprilTagCameraConfig config : VisionConstants.aprilTagCamerasConfigs) {
-      AprilTagIO io;
+    this(createIOs());
+  }
+
+  /**
+   * @param ios one per camera config in {@link VisionConstants#aprilTagCamerasConfigs}, in the same
+   *     order, like stub IO in tests
+   */
+  public Vision(List<AprilTagIO> ios) {
+    for (int i = 0; i < ios.size(); i++) {
+      AprilTagCameraConfig config = VisionConstants.aprilTagCamerasConfigs.get(i);
+      AprilTagIO io = ios.get(i);
 
+      Alert disconnectedAlert =
+          new Alert(
+              aprilTagLogRoot + " " + config.source().name() + " is disconnected!",
+              AlertType.kWarning);
+
+      aprilTagCameras.add(
+          new AprilTagCamera(
+              io,
+              new AprilTagIOInputsAutoLogged(),
+              config.source(),
+              aprilTagKeys.child(config.source().name()).path(),
+              disconnectedAlert));
+
+      if (Constants.simFidelity == SimFidelity.FAST) {
+        double fps = config.simConfig().forFidelity(SimFidelity.FAST).calib().fps();
+        simUpdatePeriodSecs =
+            simUpdatePeriodSecs == 0.0 ? 1.0 / fps : Math.min(simUpdatePeriodSecs, 1.0 / fps);
+      }
+    }
+  }
+
+  private static List<AprilTagIO> createIOs() {
+    List<AprilTagIO> ios = new ArrayList<>();
+    for (AprilTagCameraConfig config : VisionConstants.aprilTagCamerasConfigs) {
       switch (Constants.currentMode) {
         case REAL:
-          io =
+          ios.add(
               new AprilTagIOPhoton(
                   config.source(),
                   FieldUtils.getReefTags(),
-                  () -> BobotState.getGlobalPose().getRotation());
+                  () -> BobotState.getGlobalPose().getRotation()));
           break;
         case SIM:
-          io =
+          ios.add(
               new AprilTagIOPhotonSim(
                   config.source(),
                   FieldUtils.getReefTags(),
                   () -> BobotState.getGlobalPose().getRotation(),
-                  config.simConfig());
+                  config.simConfig()));
           break;
         case REPLAY:
         default:
-          io = new AprilTagIO() {};
+          ios.add(new AprilTagIO() {});
           break;
       }
-
-      Alert disconnectedAlert =
-          new Alert(
-              aprilTagLogRoot + " " + config.source().name() + " is disconnected!",
-              AlertType.kWarning);
-
-      aprilTagCameras.add(
-          new AprilTagCamera(
-              io, new AprilTagIOInputsAutoLogged(), config.source(), disconnectedAlert));
     }
+    return ios;
   }
 
   @Override
   public void periodic() {
+    // Corners stay in every camera's inputs for replay, but are only gathered when they're logged
+    boolean logCorners = LogVerbosity.shouldLog(Group.VISION_CORNERS);
     List<Translation2d> validCorners = new ArrayList<>();
     List<Translation2d> rejectedCorners = new ArrayList<>();
 
@@ -83,12 +136,14 @@ public class Vision extends VirtualSubsystem {
 
     for (AprilTagCamera cam : aprilTagCameras) {
       cam.io.updateInputs(cam.inputs);
-      Logger.processInputs(aprilTagLogRoot + "/" + cam.source.name(), cam.inputs);
+      Logger.processInputs(cam.inputsKey, cam.inputs);
 
       cam.disconnectedAlert.set(!cam.inputs.connected);
 
-      validCorners.addAll(Arrays.asList(cam.inputs.validCorners));
-      rejectedCorners.addAll(Arrays.asList(cam.inputs.rejectedCorners));
+      if (logCorners) {
+        validCorners.addAll(Arrays.asList(cam.inputs.validCorners));
+        rejectedCorners.addAll(Arrays.asList(cam.inputs.rejectedCorners));
+      }
 
       validIds.addAll(Arrays.stream(cam.inputs.validIds).boxed().toList());
       rejectedIds.addAll(Arrays.stream(cam.inputs.rejectedIds).boxed().toList());
@@ -112,42 +167,45 @@ public class Vision extends VirtualSubsystem {
       }
     }
 
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/ValidCorners", validCorners.toArray(Translation2d[]::new));
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/RejectedCorners",
-        rejectedCorners.toArray(Translation2d[]::new));
-
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/ValidIds",
-        validIds.stream().mapToInt(Integer::intValue).toArray());
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/RejectedIds",
-        rejectedIds.stream().mapToInt(Integer::intValue).toArray());
-
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/ValidPoseObservations",
-        validPoseObservations.toArray(PoseObservation[]::new));
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/RejectedPoseObservations",
-        rejectedPoseObservations.toArray(PoseObservation[]::new));
-
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/ValidPoses", validPoses.toArray(Pose3d[]::new));
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/RejectedPoses", rejectedPoses.toArray(Pose3d[]::new));
-
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/ValidAprilTagPoses",
-        validAprilTagPoses.toArray(Pose3d[]::new));
-    Logger.recordOutput(
-        aggregateAprilTagLogRoot + "/RejectedAprilTagPoses",
-        rejectedAprilTagPoses.toArray(Pose3d[]::new));
+    if (logCorners) {
+      Logger.recordOutput(validCornersKey, validCorners.toArray(Translation2d[]::new));
+      Logger.recordOutput(rejectedCornersKey, rejectedCorners.toArray(Translation2d[]::new));
+    }
+
+    Logger.recordOutput(validIdsKey, validIds.stream().mapToInt(Integer::intValue).toArray());
+    Logger.recordOutput(validAprilTagPosesKey, validAprilTagPoses.toArray(Pose3d[]::new));
+
+    if (LogVerbosity.shouldLog(Group.VISION_OBSERVATIONS)) {
+      Logger.recordOutput(
+          validPoseObservationsKey, validPoseObservations.toArray(PoseObservation[]::new));
+      Logger.recordOutput(validPosesKey, validPoses.toArray(Pose3d[]::new));
+    }
+
+    if (LogVerbosity.shouldLog(Group.VISION_REJECTED)) {
+      Logger.recordOutput(
+          rejectedIdsKey, rejectedIds.stream().mapToInt(Integer::intValue).toArray());
+      Logger.recordOutput(
+          rejectedPoseObservationsKey, rejectedPoseObservations.toArray(PoseObservation[]::new));
+      Logger.recordOutput(rejectedPosesKey, rejectedPoses.toArray(Pose3d[]::new));
+      Logger.recordOutput(rejectedAprilTagPosesKey, rejectedAprilTagPoses.toArray(Pose3d[]::new));
+    }
   }
 
   @Override
   public void simulationPeriodic() {
-    VisionConstants.aprilTagSim.ifPresent(
-        aprilTagSim -> aprilTagSim.update(BobotState.getGlobalPose()));
+    if (VisionConstants.aprilTagSim.isEmpty()) {
+      return;
+    }
+
+    double now = Timer.getFPGATimestamp();
+    double updateMs = 0.0;
+    if (now >= nextSimUpdateTime) {
+      nextSimUpdateTime = Math.max(nextSimUpdateTime + simUpdatePeriodSecs, now);
+
+      long startNanos = System.nanoTime();
+      VisionConstants.aprilTagSim.get().update(SwerveChassisSim.getInstance().getPose());
+      updateMs = (System.nanoTime() - startNanos) / 1e6;
+    }
+    Logger.recordOutput(simUpdateMsKey, updateMs);
   }
 }
@@ -102,6 +102,11 @@ public class VisionConstants {
   public static final List<AprilTagCameraConfig> aprilTagCamerasConfigs =
       Constants.isGuido ? guidoConfigs : riptideConfigs;
 
+  /** Camera sims in {@link Constants.SimFidelity#FAST} are scaled down and capped to these. */
+  public static final double fastSimResolutionScale = 0.25;
+
+  public static final double fastSimMaxFps = 25.0;
+
   public static final double ambiguityCutoff = 0.05;
   public static final double singleTagPoseCutoffMeters = 4.0;
 
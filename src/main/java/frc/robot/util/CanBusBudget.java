@@ -0,0 +1,84 @@
+package frc.robot.util;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Estimates how busy each CAN bus is from the status frames its devices are configured to send.
+ *
+ * <p>Devices report their frames per second whenever their frame periods change, and each bus's
+ * estimated utilization is logged under {@code CanBus/<bus>} with an alert once it's over {@link
+ * #utilizationBudget}. Every frame is counted as a full CAN 2.0 frame at {@link #bitsPerFrame}, so
+ * the estimate runs high on a CAN FD bus, and Phoenix signals are counted as a frame each even
+ * though several can share one. It's meant for comparing profiles before they reach the robot, not
+ * for replacing the bus utilization the RIO measures.
+ */
+public class CanBusBudget {
+  /** An extended ID frame with eight data bytes and worst case bit stuffing. */
+  private static final double bitsPerFrame = 160.0;
+
+  private static final double bitsPerSec = 1e6;
+
+  /** Above this, errors and retries start costing odometry samples. */
+  private static final double utilizationBudget = 0.6;
+
+  private static CanBusBudget instance = null;
+
+  private static final class Bus {
+    private final Map<String, Double> framesPerSec = new LinkedHashMap<>();
+    private final String framesPerSecKey;
+    private final String utilizationKey;
+    private final Alert alert;
+
+    private Bus(String name) {
+      LogKeys logKeys = LogKeys.root("CanBus").child(name);
+      framesPerSecKey = logKeys.key("EstimatedFramesPerSec");
+      utilizationKey = logKeys.key("EstimatedUtilization");
+      alert = new Alert("", AlertType.kWarning);
+    }
+  }
+
+  private final Map<String, Bus> buses = new LinkedHashMap<>();
+
+  public static CanBusBudget getInstance() {
+    if (instance == null) {
+      instance = new CanBusBudget();
+    }
+    return instance;
+  }
+
+  private CanBusBudget() {}
+
+  /** Sets how many frames per second a device sends, replacing what it reported before. */
+  public void setFramesPerSec(String busName, String device, double framesPerSec) {
+    Bus bus = buses.computeIfAbsent(busName, Bus::new);
+    bus.framesPerSec.put(device, framesPerSec);
+
+    double total = 0.0;
+    for (double deviceFramesPerSec : bus.framesPerSec.values()) {
+      total += deviceFramesPerSec;
+    }
+    double utilization = total * bitsPerFrame / bitsPerSec;
+
+    Logger.recordOutput(bus.framesPerSecKey, total);
+    Logger.recordOutput(bus.utilizationKey, utilization);
+    bus.alert.setText(
+        String.format(
+            "CAN bus %s is estimated at %.0f%% utilization, over the %.0f%% budget.",
+            busName, utilization * 100.0, utilizationBudget * 100.0));
+    bus.alert.set(utilization > utilizationBudget);
+  }
+
+  /** Frames per second from Phoenix signals, after their update frequencies have been applied. */
+  public static double getFramesPerSec(BaseStatusSignal... signals) {
+    double total = 0.0;
+    for (BaseStatusSignal signal : signals) {
+      total += signal.getAppliedUpdateFrequency();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,109 @@
+package frc.robot.util;
+
+import edu.wpi.first.networktables.GenericPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.littletonrobotics.junction.LogDataReceiver;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.LogTable.LogValue;
+
+/**
+ * Replacement for AdvantageKit's {@code NT4Publisher} for use on the field.
+ *
+ * <p>Only keys under one of the allowlisted prefixes are published, at most once per publish
+ * period, and only when their value changed since the last time they were published. Keys are
+ * published under the same {@code /AdvantageKit} table as {@code NT4Publisher}, so the dashboard
+ * layouts work with either one. The full rate log still goes to the {@code WPILOGWriter}.
+ */
+public class DashboardPublisher implements LogDataReceiver {
+  /** Struct schemas are published as regular keys and are required to decode struct values. */
+  private static final String schemaPrefix = "/.schema/";
+
+  private final NetworkTable akitTable;
+  private final IntegerPublisher timestampPublisher;
+  private final PubSubOption[] publishOptions;
+  private final long periodMicros;
+  private final List<String> keyPrefixes;
+
+  private final Map<String, Boolean> allowedKeys = new HashMap<>();
+  private final Map<String, GenericPublisher> publishers = new HashMap<>();
+  private final Map<String, LogValue> publishedValues = new HashMap<>();
+
+  private long lastPublishMicros = Long.MIN_VALUE;
+
+  /**
+   * @param periodSecs Minimum time between publishes
+   * @param keyPrefixes Log keys to publish, relative to the log root, e.g. {@code
+   *     "/RealOutputs/BobotState/"}
+   */
+  public DashboardPublisher(double periodSecs, List<String> keyPrefixes) {
+    this.periodMicros = (long) (periodSecs * 1e6);
+    this.keyPrefixes = keyPrefixes;
+
+    akitTable = NetworkTableInstance.getDefault().getTable("/AdvantageKit");
+    publishOptions = new PubSubOption[] {PubSubOption.periodic(periodSecs)};
+    timestampPublisher = akitTable.getIntegerTopic("Timestamp").publish(publishOptions);
+  }
+
+  @Override
+  public void putTable(LogTable table) {
+    long timestamp = table.getTimestamp();
+    if (timestamp - lastPublishMicros < periodMicros) {
+      return;
+    }
+    lastPublishMicros = timestamp;
+
+    timestampPublisher.set(timestamp, timestamp);
+
+    for (Map.Entry<String, LogValue> field : table.getAll(false).entrySet()) {
+      String key = field.getKey();
+      if (!isAllowed(key)) {
+        continue;
+      }
+
+      LogValue value = field.getValue();
+      if (value.equals(publishedValues.get(key))) {
+        continue;
+      }
+      publishedValues.put(key, value);
+
+      GenericPublisher publisher = publishers.get(key);
+      if (publisher == null) {
+        publisher =
+            akitTable.getTopic(key.substring(1)).genericPublish(value.getNT4Type(), publishOptions);
+        publishers.put(key, publisher);
+      }
+
+      switch (value.type) {
+        case Raw -> publisher.setRaw(value.getRaw(), timestamp);
+        case Boolean -> publisher.setBoolean(value.getBoolean(), timestamp);
+        case Integer -> publisher.setInteger(value.getInteger(), timestamp);
+        case Float -> publisher.setFloat(value.getFloat(), timestamp);
+        case Double -> publisher.setDouble(value.getDouble(), timestamp);
+        case String -> publisher.setString(value.getString(), timestamp);
+        case BooleanArray -> publisher.setBooleanArray(value.getBooleanArray(), timestamp);
+        case IntegerArray -> publisher.setIntegerArray(value.getIntegerArray(), timestamp);
+        case FloatArray -> publisher.setFloatArray(value.getFloatArray(), timestamp);
+        case DoubleArray -> publisher.setDoubleArray(value.getDoubleArray(), timestamp);
+        case StringArray -> publisher.setStringArray(value.getStringArray(), timestamp);
+      }
+    }
+  }
+
+  private boolean isAllowed(String key) {
+    Boolean allowed = allowedKeys.get(key);
+    if (allowed == null) {
+      allowed = key.startsWith(schemaPrefix);
+      for (int i = 0; !allowed && i < keyPrefixes.size(); i++) {
+        allowed = key.startsWith(keyPrefixes.get(i));
+      }
+      allowedKeys.put(key, allowed);
+    }
+    return allowed;
+  }
+}
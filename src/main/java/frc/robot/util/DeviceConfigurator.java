@@ -0,0 +1,191 @@
+package frc.robot.util;
+
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.revrobotics.spark.SparkBase;
+import com.revrobotics.spark.SparkBase.PersistMode;
+import com.revrobotics.spark.SparkBase.ResetMode;
+import com.revrobotics.spark.config.SparkBaseConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Configures motor controllers on background threads at boot, each device in parallel with the
+ * others, and only writes to a device's flash when its config has actually changed.
+ *
+ * <p>Before applying anything, each device's current config is read back and compared against the
+ * one we want. A Spark whose checked parameters already match gets the config applied to RAM only,
+ * so nothing it doesn't check can drift, and one that doesn't match is reset and persisted like
+ * before. A TalonFX always persists what it's given, so one whose motor output, current limits,
+ * slot 0 gains and Motion Magic already match isn't touched at all.
+ * Applying a config is still retried up to {@link #maxAttempts} times, with {@link
+ * SparkUtil#tryUntilOk} for Sparks.
+ *
+ * <p>Anything that needs a device configured first, like setting an encoder's position, goes in
+ * that device's {@code afterwards} task. {@link #awaitAll} waits for every task so far, then logs
+ * each device's config time and whether it had to be persisted under {@code DeviceConfig/<name>}.
+ */
+public class DeviceConfigurator {
+  public static record Result(double configMs, boolean persisted, boolean ok) {}
+
+  private static final int threads = 4;
+  private static final int maxAttempts = 5;
+
+  private static final String logRoot = "DeviceConfig";
+  private static final String totalMsKey = logRoot + "/TotalMS";
+
+  private static DeviceConfigurator instance = null;
+
+  private final ExecutorService executor =
+      Executors.newFixedThreadPool(
+          threads,
+          runnable -> {
+            Thread thread = new Thread(runnable, "DeviceConfigurator");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final Map<String, Result> results = new ConcurrentHashMap<>();
+  private final List<Future<?>> pending = new ArrayList<>();
+  private long startNanos = 0;
+
+  public static DeviceConfigurator getInstance() {
+    if (instance == null) {
+      instance = new DeviceConfigurator();
+    }
+    return instance;
+  }
+
+  private DeviceConfigurator() {}
+
+  /**
+   * Configures a Spark in the background.
+   *
+   * @param matches reads the Spark's current parameters through its config accessor, and returns
+   *     whether every one the config sets already has the value we want
+   * @param afterwards runs on the same thread once the Spark is configured
+   */
+  public void configureSpark(
+      String name,
+      SparkBase spark,
+      SparkBaseConfig config,
+      BooleanSupplier matches,
+      Runnable afterwards) {
+    submit(
+        () -> {
+          long start = System.nanoTime();
+          boolean persisted = !matches.getAsBoolean();
+          ResetMode resetMode =
+              persisted ? ResetMode.kResetSafeParameters : ResetMode.kNoResetSafeParameters;
+          PersistMode persistMode =
+              persisted ? PersistMode.kPersistParameters : PersistMode.kNoPersistParameters;
+          boolean ok =
+              SparkUtil.tryUntilOk(
+                  spark, maxAttempts, () -> spark.configure(config, resetMode, persistMode));
+          afterwards.run();
+          results.put(name, new Result(millisSince(start), persisted, ok));
+        });
+  }
+
+  /** Configures a TalonFX in the background, only if its current config is different. */
+  public void configureTalonFX(String name, TalonFX talon, TalonFXConfiguration config) {
+    submit(
+        () -> {
+          long start = System.nanoTime();
+          var current = new TalonFXConfiguration();
+          boolean persisted =
+              !talon.getConfigurator().refresh(current).isOK() || !matches(current, config);
+          boolean ok = true;
+          if (persisted) {
+            ok = false;
+            for (int i = 0; i < maxAttempts && !ok; i++) {
+              ok = talon.getConfigurator().apply(config).isOK();
+            }
+          }
+          results.put(name, new Result(millisSince(start), persisted, ok));
+        });
+  }
+
+  private synchronized void submit(Runnable task) {
+    if (pending.isEmpty()) {
+      startNanos = System.nanoTime();
+    }
+    pending.add(executor.submit(task));
+  }
+
+  /** Waits for every device submitted so far to finish configuring, then logs how it went. */
+  public synchronized void awaitAll() {
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    for (Future<?> future : pending) {
+      try {
+        future.get();
+      } catch (Exception e) {
+        e.printStackTrace(); // Configuring failed, but the robot can still try to run
+      }
+    }
+    pending.clear();
+
+    Logger.recordOutput(totalMsKey, millisSince(startNanos));
+    results.forEach(
+        (name, result) -> {
+          LogKeys deviceKeys = LogKeys.root(logRoot).child(name);
+          Logger.recordOutput(deviceKeys.key("ConfigMS"), result.configMs());
+          Logger.recordOutput(deviceKeys.key("Persisted"), result.persisted());
+          Logger.recordOutput(deviceKeys.key("Ok"), result.ok());
+        });
+    results.clear();
+  }
+
+  /** Whether a parameter read back from a device matches, as precisely as the device stores it. */
+  public static boolean matches(double actual, double expected) {
+    return (float) actual == (float) expected;
+  }
+
+  /**
+   * Whether every group of a TalonFX config that our configs set matches what was read back. A
+   * config that sets anything else needs it checked here too, or changing it won't be applied.
+   */
+  private static boolean matches(TalonFXConfiguration actual, TalonFXConfiguration expected) {
+    var actualOutput = actual.MotorOutput;
+    var expectedOutput = expected.MotorOutput;
+    var actualLimits = actual.CurrentLimits;
+    var expectedLimits = expected.CurrentLimits;
+    var actualSlot = actual.Slot0;
+    var expectedSlot = expected.Slot0;
+    var actualMotionMagic = actual.MotionMagic;
+    var expectedMotionMagic = expected.MotionMagic;
+    return actualOutput.Inverted == expectedOutput.Inverted
+        && actualOutput.NeutralMode == expectedOutput.NeutralMode
+        && actualLimits.SupplyCurrentLimitEnable == expectedLimits.SupplyCurrentLimitEnable
+        && matches(actualLimits.SupplyCurrentLimit, expectedLimits.SupplyCurrentLimit)
+        && actualLimits.StatorCurrentLimitEnable == expectedLimits.StatorCurrentLimitEnable
+        && matches(actualLimits.StatorCurrentLimit, expectedLimits.StatorCurrentLimit)
+        && matches(actualSlot.kP, expectedSlot.kP)
+        && matches(actualSlot.kI, expectedSlot.kI)
+        && matches(actualSlot.kD, expectedSlot.kD)
+        && matches(actualSlot.kS, expectedSlot.kS)
+        && matches(actualSlot.kV, expectedSlot.kV)
+        && matches(actualSlot.kA, expectedSlot.kA)
+        && matches(actualSlot.kG, expectedSlot.kG)
+        && actualSlot.GravityType == expectedSlot.GravityType
+        && matches(
+            actualMotionMagic.MotionMagicCruiseVelocity,
+            expectedMotionMagic.MotionMagicCruiseVelocity)
+        && matches(
+            actualMotionMagic.MotionMagicAcceleration, expectedMotionMagic.MotionMagicAcceleration)
+        && matches(actualMotionMagic.MotionMagicJerk, expectedMotionMagic.MotionMagicJerk);
+  }
+
+  private static double millisSince(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1e6;
+  }
+}
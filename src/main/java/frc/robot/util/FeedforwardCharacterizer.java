@@ -0,0 +1,209 @@
+package frc.robot.util;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Fits {@code volts = kS * sign(velocity) + kV * velocity} one sample at a time with recursive
+ * least squares, so estimates are live every loop in constant memory and a characterization run can
+ * stop as soon as they settle.
+ *
+ * <p>This is meant for a slow voltage ramp, where the mechanism barely accelerates, so kA isn't
+ * fit. Differencing the measured velocity for acceleration would make a regressor out of mostly
+ * sensor noise, and that noise biases every estimate towards zero instead of just widening its
+ * error. Steps in voltage, like SysId's dynamic tests, are what identify kA.
+ *
+ * <p>Samples slower than {@code minVelocity} are skipped, since a mechanism that isn't moving yet
+ * says nothing about kS. Each estimate's standard error comes from the fit's residuals. The fit has
+ * converged once kS and kV are both known to within {@link #convergedRelativeError} of their values
+ * and the fitted velocities span at least {@code minVelocitySpan}, since over a narrow span kS and
+ * kV can trade off against each other and still fit it well.
+ *
+ * <p>Logged under {@code Characterization/<name>}. Units are whatever the caller's volts and
+ * velocities are in.
+ */
+public class FeedforwardCharacterizer {
+  private static final int parameters = 2;
+  private static final String[] parameterNames = {"kS", "kV"};
+
+  /** Starting covariance, big enough that the first samples decide the fit. */
+  private static final double initialCovariance = 1e6;
+
+  private static final int minSamples = 50;
+  private static final double convergedRelativeError = 0.02;
+
+  private final String name;
+  private final double minVelocity;
+  private final double minVelocitySpan;
+
+  private final String kSKey;
+  private final String kVKey;
+  private final String kSErrorKey;
+  private final String kVErrorKey;
+  private final String samplesKey;
+  private final String velocitySpanKey;
+  private final String convergedKey;
+
+  // Estimates of kS and kV, and their covariance, up to the residual variance
+  private final double[] theta = new double[parameters];
+  private final double[][] covariance = new double[parameters][parameters];
+
+  // Scratch for each update
+  private final double[] phi = new double[parameters];
+  private final double[] gain = new double[parameters];
+
+  private int samples = 0;
+  private double sumSquaredResiduals = 0.0;
+  private double slowestFitted = Double.POSITIVE_INFINITY;
+  private double fastestFitted = 0.0;
+
+  /**
+   * @param minVelocity slowest velocity to fit, in the caller's units
+   * @param minVelocitySpan how far apart the slowest and fastest fitted velocities have to be
+   *     before the fit can converge, in the caller's units
+   */
+  public FeedforwardCharacterizer(String name, double minVelocity, double minVelocitySpan) {
+    this.name = name;
+    this.minVelocity = minVelocity;
+    this.minVelocitySpan = minVelocitySpan;
+
+    LogKeys logKeys = LogKeys.root("Characterization").child(name);
+    kSKey = logKeys.key("KS");
+    kVKey = logKeys.key("KV");
+    kSErrorKey = logKeys.key("KSStdError");
+    kVErrorKey = logKeys.key("KVStdError");
+    samplesKey = logKeys.key("Samples");
+    velocitySpanKey = logKeys.key("VelocitySpan");
+    convergedKey = logKeys.key("Converged");
+
+    reset();
+  }
+
+  /** Forgets every sample, for a new run. */
+  public void reset() {
+    for (int i = 0; i < parameters; i++) {
+      theta[i] = 0.0;
+      for (int j = 0; j < parameters; j++) {
+        covariance[i][j] = i == j ? initialCovariance : 0.0;
+      }
+    }
+    samples = 0;
+    sumSquaredResiduals = 0.0;
+    slowestFitted = Double.POSITIVE_INFINITY;
+    fastestFitted = 0.0;
+  }
+
+  /** Adds a sample of the voltage applied and the velocity it's moving at, then logs estimates. */
+  public void update(double volts, double velocity) {
+    if (Math.abs(velocity) >= minVelocity) {
+      addSample(volts, velocity);
+    }
+    log();
+  }
+
+  private void addSample(double volts, double velocity) {
+    phi[0] = Math.signum(velocity);
+    phi[1] = velocity;
+
+    // gain = P phi / (1 + phi' P phi)
+    double denominator = 1.0;
+    for (int i = 0; i < parameters; i++) {
+      gain[i] = 0.0;
+      for (int j = 0; j < parameters; j++) {
+        gain[i] += covariance[i][j] * phi[j];
+      }
+      denominator += phi[i] * gain[i];
+    }
+    for (int i = 0; i < parameters; i++) {
+      gain[i] /= denominator;
+    }
+
+    double error = volts - dot(phi, theta);
+    for (int i = 0; i < parameters; i++) {
+      theta[i] += gain[i] * error;
+    }
+
+    // P -= gain phi' P, which is gain (P phi)' since P is symmetric; kept symmetric exactly
+    for (int i = 0; i < parameters; i++) {
+      for (int j = i; j < parameters; j++) {
+        double updated = covariance[i][j] - gain[i] * gain[j] * denominator;
+        covariance[i][j] = updated;
+        covariance[j][i] = updated;
+      }
+    }
+
+    double residual = volts - dot(phi, theta);
+    sumSquaredResiduals += residual * residual;
+    samples++;
+    slowestFitted = Math.min(slowestFitted, Math.abs(velocity));
+    fastestFitted = Math.max(fastestFitted, Math.abs(velocity));
+  }
+
+  public double getKS() {
+    return theta[0];
+  }
+
+  public double getKV() {
+    return theta[1];
+  }
+
+  /** How far apart the slowest and fastest fitted velocities are. */
+  public double getVelocitySpan() {
+    return samples > 0 ? fastestFitted - slowestFitted : 0.0;
+  }
+
+  /** Standard error of an estimate, or infinity before there are enough samples to tell. */
+  private double getStdError(int parameter) {
+    if (samples <= parameters) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double residualVariance = sumSquaredResiduals / (samples - parameters);
+    return Math.sqrt(residualVariance * Math.max(covariance[parameter][parameter], 0.0));
+  }
+
+  /**
+   * Whether kS and kV are both known to within {@link #convergedRelativeError}, over a wide enough
+   * span of velocities.
+   */
+  public boolean isConverged() {
+    return samples >= minSamples
+        && getVelocitySpan() >= minVelocitySpan
+        && getStdError(0) <= convergedRelativeError * Math.abs(theta[0])
+        && getStdError(1) <= convergedRelativeError * Math.abs(theta[1]);
+  }
+
+  private void log() {
+    Logger.recordOutput(kSKey, theta[0]);
+    Logger.recordOutput(kVKey, theta[1]);
+    Logger.recordOutput(kSErrorKey, getStdError(0));
+    Logger.recordOutput(kVErrorKey, getStdError(1));
+    Logger.recordOutput(samplesKey, samples);
+    Logger.recordOutput(velocitySpanKey, getVelocitySpan());
+    Logger.recordOutput(convergedKey, isConverged());
+  }
+
+  /** Prints the estimates, like at the end of a run. */
+  public void printResults() {
+    NumberFormat formatter = new DecimalFormat("#0.00000");
+    System.out.println("********** " + name + " FF Characterization Results **********");
+    for (int i = 0; i < parameters; i++) {
+      System.out.println(
+          "\t"
+              + parameterNames[i]
+              + ": "
+              + formatter.format(theta[i])
+              + " +/- "
+              + formatter.format(getStdError(i)));
+    }
+    System.out.println("\tSamples: " + samples + (isConverged() ? ", converged" : ""));
+  }
+
+  private static double dot(double[] a, double[] b) {
+    double sum = 0.0;
+    for (int i = 0; i < a.length; i++) {
+      sum += a[i] * b[i];
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,157 @@
+package frc.robot.util;
+
+import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import frc.robot.subsystems.drive.Drive;
+import frc.robot.subsystems.drive.DriveConstants;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Runs the autonomous hot paths with made up inputs while disabled, so the JIT has compiled them by
+ * the time autonomous starts instead of during its first loops.
+ *
+ * <p>Each disabled loop spends up to {@link #loopBudgetSecs} sampling a Choreo trajectory, running
+ * {@link Drive#warmUpTrajectoryFollowing}, and updating a scratch pose estimator with odometry and
+ * vision measurements. Nothing is sent to the motors and the robot's own pose estimators are never
+ * touched. Warm up stops for good once the JVM's total compilation time stops growing. The code
+ * only counts as warm if the trajectory loaded too, since otherwise trajectory following never ran,
+ * and an alert says so.
+ */
+public class JitWarmup {
+  /**
+   * Part of an auto, so it's known to load. Curves, turns and changes speed, so it covers every
+   * branch of trajectory following.
+   */
+  private static final String trajectoryName = "IL4-HPSLeft";
+
+  private static final double loopBudgetSecs = 0.004;
+
+  /** Roughly when C2 compiles a method, so flat compilation time before this doesn't count. */
+  private static final int minIterations = 20_000;
+
+  /** Loops without any new compilation before the code counts as warm. */
+  private static final int settleLoops = 50;
+
+  private static final String logRoot = "JitWarmup/";
+  private static final String iterationsKey = logRoot + "Iterations";
+  private static final String compilationTimeKey = logRoot + "CompilationTimeMS";
+  private static final String warmKey = logRoot + "Warm";
+
+  private final Drive drive;
+  private final Optional<Trajectory<SwerveSample>> trajectory;
+  private final Alert missingTrajectoryAlert =
+      new Alert(
+          "JIT warm up couldn't load " + trajectoryName + ", trajectory following isn't warmed up",
+          AlertType.kWarning);
+  private final CompilationMXBean compilationBean = ManagementFactory.getCompilationMXBean();
+
+  private final SwerveDriveKinematics kinematics =
+      new SwerveDriveKinematics(DriveConstants.moduleTranslations);
+  private final SwerveModulePosition[] modulePositions = new SwerveModulePosition[4];
+  private final SwerveDrivePoseEstimator poseEstimator;
+
+  private int iterations = 0;
+  private double time = 0.0;
+  private long lastCompilationTimeMs = -1;
+  private int loopsSinceCompilation = 0;
+  private boolean done = false;
+  private boolean warm = false;
+
+  public JitWarmup(Drive drive) {
+    this.drive = drive;
+    trajectory = TrajectoryCache.getInstance().getTrajectory(trajectoryName);
+    missingTrajectoryAlert.set(trajectory.isEmpty());
+
+    for (int i = 0; i < 4; i++) {
+      modulePositions[i] = new SwerveModulePosition();
+    }
+    poseEstimator =
+        new SwerveDrivePoseEstimator(kinematics, new Rotation2d(), modulePositions, new Pose2d());
+  }
+
+  /** Call from {@code disabledPeriodic}. Does nothing once compilation has settled. */
+  public void periodic() {
+    if (done) {
+      return;
+    }
+
+    long startNanos = System.nanoTime();
+    do {
+      runIteration();
+      iterations++;
+    } while (System.nanoTime() - startNanos < loopBudgetSecs * 1e9);
+
+    long compilationTimeMs = getCompilationTimeMs();
+    loopsSinceCompilation =
+        compilationTimeMs == lastCompilationTimeMs ? loopsSinceCompilation + 1 : 0;
+    lastCompilationTimeMs = compilationTimeMs;
+    done = iterations >= minIterations && loopsSinceCompilation >= settleLoops;
+    warm = done && trajectory.isPresent();
+
+    Logger.recordOutput(iterationsKey, iterations);
+    Logger.recordOutput(compilationTimeKey, compilationTimeMs);
+    Logger.recordOutput(warmKey, warm);
+    if (done) {
+      System.out.println(
+          "[JitWarmup] "
+              + (warm ? "Warm" : "Done, without trajectory following,")
+              + " after "
+              + iterations
+              + " iterations, "
+              + compilationTimeMs
+              + " ms JIT");
+    }
+  }
+
+  public boolean isWarm() {
+    return warm;
+  }
+
+  private void runIteration() {
+    time += 0.02;
+
+    // Trajectory sampling and following, the pose a little off the path
+    trajectory.ifPresent(
+        traj -> {
+          double t = time % traj.getTotalTime();
+          traj.sampleAt(t, iterations % 2 == 0)
+              .ifPresent(
+                  sample ->
+                      drive.warmUpTrajectoryFollowing(
+                          sample,
+                          new Pose2d(
+                              sample.x + 0.05, sample.y - 0.05, Rotation2d.fromRadians(t))));
+        });
+
+    // Odometry with an arc, and a vision measurement every few loops like the cameras
+    for (int i = 0; i < 4; i++) {
+      modulePositions[i] =
+          new SwerveModulePosition(
+              time * 3.0 * (1.0 + 0.05 * i), Rotation2d.fromRadians(0.3 * Math.sin(time)));
+    }
+    Rotation2d yaw = Rotation2d.fromRadians(0.5 * time);
+    poseEstimator.updateWithTime(time, yaw, modulePositions);
+    if (iterations % 3 == 0) {
+      Pose2d estimate = poseEstimator.getEstimatedPosition();
+      poseEstimator.addVisionMeasurement(
+          new Pose2d(estimate.getX() + 0.02, estimate.getY(), yaw), time - 0.03);
+    }
+  }
+
+  /** Falls back to iterations alone when the JVM doesn't report compilation time. */
+  private long getCompilationTimeMs() {
+    return compilationBean != null && compilationBean.isCompilationTimeMonitoringSupported()
+        ? compilationBean.getTotalCompilationTime()
+        : 0;
+  }
+}
@@ -0,0 +1,63 @@
+package frc.robot.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of AdvantageKit log keys that can only be built at runtime, like one table per module,
+ * camera or mechanism name.
+ *
+ * <p>Every key is concatenated exactly once, the first time it is asked for, and the same {@link
+ * String} instance is handed back from then on. Resolve keys when a subsystem is constructed and
+ * keep them in fields so the robot loop never builds strings just to log something. Keys that are
+ * known at compile time should stay plain string constants, which javac already folds.
+ */
+public final class LogKeys {
+  private static final String separator = "/";
+  private static final Map<String, LogKeys> roots = new HashMap<>();
+
+  private final String path;
+  private final String prefix;
+  private final Map<String, String> keys = new HashMap<>();
+  private final Map<String, LogKeys> children = new HashMap<>();
+
+  private LogKeys(String path) {
+    this.path = path;
+    this.prefix = path + separator;
+  }
+
+  /** Returns the top level table with the given name, e.g. {@code "BobotState"}. */
+  public static LogKeys root(String name) {
+    LogKeys root = roots.get(name);
+    if (root == null) {
+      root = new LogKeys(name);
+      roots.put(name, root);
+    }
+    return root;
+  }
+
+  /** Returns the subtable with the given name, e.g. {@code "Reef"} under {@code "BobotState"}. */
+  public LogKeys child(String name) {
+    LogKeys child = children.get(name);
+    if (child == null) {
+      child = new LogKeys(prefix + name);
+      children.put(name, child);
+    }
+    return child;
+  }
+
+  /** Returns the full key of a field in this table, e.g. {@code "BobotState/Reef/ClosestTag"}. */
+  public String key(String name) {
+    String key = keys.get(name);
+    if (key == null) {
+      key = prefix + name;
+      keys.put(name, key);
+    }
+    return key;
+  }
+
+  /** Returns the full path of this table, for use with {@code Logger.processInputs}. */
+  public String path() {
+    return path;
+  }
+}
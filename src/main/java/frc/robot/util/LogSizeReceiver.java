@@ -0,0 +1,75 @@
+package frc.robot.util;
+
+import java.util.Map;
+import org.littletonrobotics.junction.LogDataReceiver;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.LogTable.LogValue;
+
+/**
+ * Estimates how many bytes each loop adds to the log.
+ *
+ * <p>Only entries that changed since the previous loop are counted, matching what the WPILOG
+ * writer actually stores. Runs on the AdvantageKit receiver thread, so results are published
+ * through volatile fields and logged from the main loop by {@link LogVerbosity#periodic()}.
+ */
+public final class LogSizeReceiver implements LogDataReceiver {
+  /** Approximate record header, entry id and timestamp overhead per changed entry. */
+  private static final int entryOverheadBytes = 8;
+
+  private Map<String, LogValue> previous = Map.of();
+  private long totalBytes = 0;
+  private long cycles = 0;
+
+  private volatile long lastCycleBytes = 0;
+  private volatile double averageCycleBytes = 0.0;
+
+  @Override
+  public void putTable(LogTable table) {
+    Map<String, LogValue> current = table.getAll(false);
+
+    long bytes = 0;
+    for (Map.Entry<String, LogValue> entry : current.entrySet()) {
+      LogValue value = entry.getValue();
+      if (!value.equals(previous.get(entry.getKey()))) {
+        bytes += entryOverheadBytes + getSize(value);
+      }
+    }
+    previous = current;
+
+    totalBytes += bytes;
+    cycles++;
+    lastCycleBytes = bytes;
+    averageCycleBytes = (double) totalBytes / cycles;
+  }
+
+  public long getLastCycleBytes() {
+    return lastCycleBytes;
+  }
+
+  public double getAverageCycleBytes() {
+    return averageCycleBytes;
+  }
+
+  private static int getSize(LogValue value) {
+    return switch (value.type) {
+      case Raw -> value.getRaw().length;
+      case Boolean -> 1;
+      case Integer, Double -> 8;
+      case Float -> 4;
+      case String -> value.getString().length();
+      case BooleanArray -> value.getBooleanArray().length;
+      case IntegerArray -> value.getIntegerArray().length * 8;
+      case FloatArray -> value.getFloatArray().length * 4;
+      case DoubleArray -> value.getDoubleArray().length * 8;
+      case StringArray -> getSize(value.getStringArray());
+    };
+  }
+
+  private static int getSize(String[] strings) {
+    int size = 4;
+    for (String string : strings) {
+      size += 4 + string.length();
+    }
+    return size;
+  }
+}
@@ -0,0 +1,141 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Central policy for how much diagnostic data is logged every loop.
+ *
+ * <p>Heavy keys are sorted into {@link Group groups}, and each group has a decimation rate per
+ * {@link Profile}: a rate of {@code n} logs the group every {@code n}th loop, and {@code 0} turns
+ * it off. Only outputs are ever decimated. Inputs always go through {@code processInputs} so replay
+ * sees exactly what the robot saw, and replay itself always runs with {@link Profile#DEBUG}.
+ */
+public final class LogVerbosity {
+  public static enum Profile {
+    /** On the field with FMS attached. Only what we need to review a match. */
+    COMPETITION,
+
+    /** Practice field and pit. Diagnostics at reduced rates. */
+    PRACTICE,
+
+    /** Sim, replay and bench debugging. Everything, every loop. */
+    DEBUG
+  }
+
+  public static enum Group {
+    /** Pixel corners of every detected AprilTag. */
+    VISION_CORNERS(0, 5, 1),
+
+    /** Rejected tags, poses and observations. */
+    VISION_REJECTED(0, 5, 1),
+
+    /** Accepted pose observations, including their std devs. */
+    VISION_OBSERVATIONS(5, 1, 1),
+
+    /** Alignment tracker targets, unit duplicates and queued Quest measurements. */
+    ALIGNMENT_DIAGNOSTICS(0, 5, 1),
+
+    /** Commanded swerve setpoints and chassis speeds. */
+    SWERVE_SETPOINTS(5, 1, 1),
+
+    /** Choreo sample and tracking error while following a trajectory. */
+    TRAJECTORY_DIAGNOSTICS(2, 1, 1),
+
+    /**
+     * Unit duplicates and intermediate values from characterization commands. Logged every loop
+     * while one is running, whatever the profile, since that's the only time they mean anything.
+     */
+    CHARACTERIZATION(0, 5, 1);
+
+    private final int competitionDecimation;
+    private final int practiceDecimation;
+    private final int debugDecimation;
+
+    private Group(int competitionDecimation, int practiceDecimation, int debugDecimation) {
+      this.competitionDecimation = competitionDecimation;
+      this.practiceDecimation = practiceDecimation;
+      this.debugDecimation = debugDecimation;
+    }
+
+    public int getDecimation(Profile profile) {
+      return switch (profile) {
+        case COMPETITION -> competitionDecimation;
+        case PRACTICE -> practiceDecimation;
+        case DEBUG -> debugDecimation;
+      };
+    }
+  }
+
+  private static final String logRoot = "Logger/";
+  private static final String profileKey = logRoot + "VerbosityProfile";
+  private static final String bytesPerLoopKey = logRoot + "BytesPerLoop";
+  private static final String averageBytesPerLoopKey = logRoot + "AverageBytesPerLoop";
+
+  private static final LogSizeReceiver sizeReceiver = new LogSizeReceiver();
+
+  private static Profile profile = getDefaultProfile();
+  private static long cycle = 0;
+  private static int runningCharacterizations = 0;
+
+  private LogVerbosity() {}
+
+  /**
+   * Records the verbosity setup as log metadata. Must be called before {@code Logger.start()}.
+   *
+   * @return Receiver that measures the bytes each loop adds to the log, to be added alongside the
+   *     other data receivers
+   */
+  public static LogSizeReceiver recordMetadata() {
+    Logger.recordMetadata("LogVerbosity", Constants.logVerbosity.name());
+    for (Group group : Group.values()) {
+      Logger.recordMetadata(
+          "LogVerbosity/" + group.name(),
+          group.getDecimation(Profile.COMPETITION)
+              + "/"
+              + group.getDecimation(Profile.PRACTICE)
+              + "/"
+              + group.getDecimation(Profile.DEBUG));
+    }
+    return sizeReceiver;
+  }
+
+  /** Advances the loop counter and logs the measured log size. Call once at the top of the loop. */
+  public static void periodic() {
+    cycle++;
+    profile = getDefaultProfile();
+
+    Logger.recordOutput(profileKey, profile);
+    Logger.recordOutput(bytesPerLoopKey, sizeReceiver.getLastCycleBytes());
+    Logger.recordOutput(averageBytesPerLoopKey, sizeReceiver.getAverageCycleBytes());
+  }
+
+  /** Returns whether keys in the group should be logged during this loop. */
+  public static boolean shouldLog(Group group) {
+    if (group == Group.CHARACTERIZATION && runningCharacterizations > 0) {
+      return true;
+    }
+    int decimation = group.getDecimation(profile);
+    return decimation > 0 && cycle % decimation == 0;
+  }
+
+  /** Logs {@link Group#CHARACTERIZATION} every loop for as long as the command runs. */
+  public static Command whileCharacterizing(Command command) {
+    return command
+        .beforeStarting(() -> runningCharacterizations++)
+        .finallyDo(() -> runningCharacterizations--);
+  }
+
+  public static Profile getProfile() {
+    return profile;
+  }
+
+  private static Profile getDefaultProfile() {
+    return switch (Constants.currentMode) {
+      case REPLAY, SIM -> Profile.DEBUG;
+      case REAL -> DriverStation.isFMSAttached() ? Profile.COMPETITION : Constants.logVerbosity;
+    };
+  }
+}
@@ -0,0 +1,226 @@
+package frc.robot.util;
+
+import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
+import choreo.util.ChoreoAllianceFlipUtil;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.math.trajectory.TrapezoidProfile.State;
+import frc.robot.Constants;
+import frc.robot.field.FieldUtils;
+import frc.robot.subsystems.drive.DriveConstants;
+import java.util.ArrayList;
+import java.util.List;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Generates straight line trajectories from the robot to a pose on the field, like a reef pole or a
+ * station slot, for the {@code AutoFactory} to follow the same way as a Choreo trajectory.
+ *
+ * <p>Position and heading move together along one trapezoid profile of progress from start to
+ * goal, as fast as the tighter of the path limits in {@link DriveConstants} over the distance and
+ * over the turn allows. Nothing steers around the reef, so these are for the last few meters of an
+ * approach.
+ *
+ * <p>From a stop, that profile only depends on the distance and the turn to the goal, so profiles
+ * for a grid of start poses by both are precomputed at boot. Each cell's profile is for its far
+ * corner, which keeps it within the limits anywhere in the cell. Starting while moving, or from
+ * farther than the grid reaches, solves the profile on the spot instead.
+ */
+public class PathGenerator {
+  private static final double dt = Constants.loopPeriodSecs;
+
+  private static final double distanceStepMeters = 0.25;
+  private static final int distanceCells = 24; // Out to 6 meters
+  private static final double turnStepRad = Math.PI / 8.0;
+  private static final int turnCells = 8; // The shorter way around is never more than pi
+
+  /** Slower than this towards the goal counts as starting from a stop. */
+  private static final double stoppedMetersPerSec = 0.1;
+
+  /** Closer than this in both distance and turn is already there. */
+  private static final double arrivedTolerance = 1e-3;
+
+  /** Generated trajectories don't plan module forces. Never written to, so shared. */
+  private static final double[] noModuleForces = new double[4];
+
+  private static final String logRoot = "PathGenerator/";
+  private static final String cachedKey = logRoot + "Cached";
+  private static final String generateMicrosKey = logRoot + "GenerateMicros";
+
+  private static PathGenerator instance = null;
+
+  /** Progress from 0 to 1 along a trajectory, sampled once per loop period. */
+  private static final class Profile {
+    private final double totalTime;
+    private final double[] position;
+    private final double[] velocity;
+    private final double[] acceleration;
+
+    private Profile(double totalTime, int length) {
+      this.totalTime = totalTime;
+      position = new double[length];
+      velocity = new double[length];
+      acceleration = new double[length];
+    }
+  }
+
+  private final Profile[][] profiles = new Profile[distanceCells][turnCells];
+
+  public static PathGenerator getInstance() {
+    if (instance == null) {
+      instance = new PathGenerator();
+    }
+    return instance;
+  }
+
+  private PathGenerator() {
+    for (int i = 0; i < distanceCells; i++) {
+      for (int j = 0; j < turnCells; j++) {
+        profiles[i][j] = solve((i + 1) * distanceStepMeters, (j + 1) * turnStepRad, 0.0);
+      }
+    }
+  }
+
+  /**
+   * Generates a trajectory from the robot's pose and field relative speeds to a goal, all in field
+   * coordinates. The trajectory itself is in blue alliance coordinates, since the {@code
+   * AutoFactory} flips it for red.
+   */
+  public Trajectory<SwerveSample> generate(
+      String name, Pose2d start, ChassisSpeeds fieldSpeeds, Pose2d goal) {
+    long startNanos = System.nanoTime();
+
+    double approachSpeed = getApproachSpeed(start, fieldSpeeds, goal);
+
+    // Speed towards the goal is the same either way the field is flipped
+    if (FieldUtils.isRedAlliance()) {
+      start = ChoreoAllianceFlipUtil.flip(start);
+      goal = ChoreoAllianceFlipUtil.flip(goal);
+    }
+    double dx = goal.getX() - start.getX();
+    double dy = goal.getY() - start.getY();
+    double distance = Math.hypot(dx, dy);
+    double turn =
+        MathUtil.angleModulus(goal.getRotation().getRadians() - start.getRotation().getRadians());
+
+    List<SwerveSample> samples;
+    boolean cached = false;
+    if (distance < arrivedTolerance && Math.abs(turn) < arrivedTolerance) {
+      samples = List.of(sample(0.0, goal, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0));
+    } else {
+      int distanceCell = Math.max((int) Math.ceil(distance / distanceStepMeters), 1) - 1;
+      int turnCell =
+          MathUtil.clamp((int) Math.ceil(Math.abs(turn) / turnStepRad), 1, turnCells) - 1;
+      cached = approachSpeed < stoppedMetersPerSec && distanceCell < distanceCells;
+      Profile profile =
+          cached
+              ? profiles[distanceCell][turnCell]
+              : solve(
+                  distance,
+                  Math.abs(turn),
+                  distance > arrivedTolerance ? approachSpeed / distance : 0.0);
+
+      samples = new ArrayList<>(profile.position.length);
+      for (int i = 0; i < profile.position.length; i++) {
+        samples.add(
+            sample(
+                Math.min(i * dt, profile.totalTime),
+                start,
+                profile.position[i],
+                profile.velocity[i],
+                profile.acceleration[i],
+                dx,
+                dy,
+                turn));
+      }
+    }
+
+    Logger.recordOutput(cachedKey, cached);
+    Logger.recordOutput(generateMicrosKey, (System.nanoTime() - startNanos) / 1e3);
+    return new Trajectory<>(name, samples, List.of(), List.of());
+  }
+
+  /** How fast the robot is already moving straight towards the goal, never less than zero. */
+  private static double getApproachSpeed(Pose2d start, ChassisSpeeds fieldSpeeds, Pose2d goal) {
+    double dx = goal.getX() - start.getX();
+    double dy = goal.getY() - start.getY();
+    double distance = Math.hypot(dx, dy);
+    if (distance < arrivedTolerance) {
+      return 0.0;
+    }
+    double speed = fieldSpeeds.vxMetersPerSecond * dx + fieldSpeeds.vyMetersPerSecond * dy;
+    return Math.max(speed / distance, 0.0);
+  }
+
+  /** Samples progress {@code p} of the way from {@code start} by the given distances and turn. */
+  private static SwerveSample sample(
+      double t,
+      Pose2d start,
+      double p,
+      double velocity,
+      double acceleration,
+      double dx,
+      double dy,
+      double turn) {
+    return new SwerveSample(
+        t,
+        start.getX() + p * dx,
+        start.getY() + p * dy,
+        start.getRotation().getRadians() + p * turn,
+        velocity * dx,
+        velocity * dy,
+        velocity * turn,
+        acceleration * dx,
+        acceleration * dy,
+        acceleration * turn,
+        noModuleForces,
+        noModuleForces);
+  }
+
+  /**
+   * Solves the profile of progress over a distance and a turn, starting at a velocity in progress
+   * per second. At least one of the distance and the turn must be more than zero.
+   */
+  private static Profile solve(double distance, double turn, double startVelocity) {
+    double maxVelocity =
+        Math.min(
+            perUnit(DriveConstants.pathMaxVelocityMetersPerSec, distance),
+            perUnit(DriveConstants.pathMaxAngularVelocityRadPerSec, turn));
+    double maxAcceleration =
+        Math.min(
+            perUnit(DriveConstants.pathMaxAccelMetersPerSec2, distance),
+            perUnit(DriveConstants.pathMaxAngularAccelRadPerSec2, turn));
+
+    TrapezoidProfile trapezoid =
+        new TrapezoidProfile(new TrapezoidProfile.Constraints(maxVelocity, maxAcceleration));
+    State current = new State(0.0, Math.min(startVelocity, maxVelocity));
+    State goal = new State(1.0, 0.0);
+    trapezoid.calculate(0.0, current, goal);
+    double totalTime = trapezoid.totalTime();
+
+    // At least two samples, so there's always one to interpolate towards
+    int length = Math.max((int) Math.ceil(totalTime / dt) + 1, 2);
+    Profile profile = new Profile(totalTime, length);
+    for (int i = 0; i < length; i++) {
+      State state = trapezoid.calculate(Math.min(i * dt, totalTime), current, goal);
+      profile.position[i] = state.position;
+      profile.velocity[i] = state.velocity;
+    }
+
+    // Constant between samples, like Choreo assumes; the last interval can be shorter
+    for (int i = 0; i < length - 1; i++) {
+      double interval = Math.min((i + 1) * dt, totalTime) - i * dt;
+      profile.acceleration[i] =
+          interval > 0.0 ? (profile.velocity[i + 1] - profile.velocity[i]) / interval : 0.0;
+    }
+    return profile;
+  }
+
+  /** A limit per unit of progress, which a zero length doesn't limit at all. */
+  private static double perUnit(double limit, double length) {
+    return length > arrivedTolerance ? limit / length : Double.POSITIVE_INFINITY;
+  }
+}
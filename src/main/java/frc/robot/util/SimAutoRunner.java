@@ -0,0 +1,281 @@
+package frc.robot.util;
+
+import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants;
+import frc.robot.RobotContainer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.function.Supplier;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Runs auto routines headless in sim, as fast as the CPU allows.
+ *
+ * <p>HAL time is paused and stepped by exactly one loop period every loop, so runs are
+ * deterministic and independent of wall clock time. Each routine is enabled in autonomous until it
+ * finishes or runs out of time, with a few disabled loops in between. When every routine has run,
+ * the results are printed and the robot program exits with a nonzero code if any routine timed out.
+ *
+ * <p>Select routines with {@code -PsimAuto="2 Meters,Right FCD"} or {@code -PsimAuto=*} for all of
+ * them. If the {@code simAutoResults} system property is set, one CSV line per routine and one per
+ * trajectory segment are appended to that file. Segment lines only have the final error, measured
+ * against the end of the segment when Choreo stops following it.
+ */
+public class SimAutoRunner extends VirtualSubsystem {
+  private static final double timeoutSecs = 15.0;
+  private static final int disabledLoops = 5;
+  private static final String resultsHeader =
+      "kind,auto,name,completed,simTimeSecs,finalErrorMeters,finalErrorRad,meanPathErrorMeters,"
+          + "maxPathErrorMeters";
+
+  private final RobotContainer robotContainer;
+  private final Supplier<Pose2d> truePoseSupplier;
+  private final Queue<String> pending = new ArrayDeque<>();
+  private final Optional<Path> resultsPath;
+  private final long wallStartNanos = System.nanoTime();
+
+  private String currentName = null;
+  private Command currentCommand = null;
+  private double startTime = 0.0;
+  private double segmentStartTime = 0.0;
+  private int disabledCount = 0;
+  private boolean anyFailed = false;
+
+  private SwerveSample lastSample = null;
+  private double pathErrorSum = 0.0;
+  private double pathErrorMax = 0.0;
+  private int pathErrorCount = 0;
+
+  /**
+   * @param autos Comma separated routine names, or {@code *} for every routine
+   * @param truePoseSupplier Where the simulated robot actually is
+   */
+  public SimAutoRunner(
+      RobotContainer robotContainer, String autos, Supplier<Pose2d> truePoseSupplier) {
+    this.robotContainer = robotContainer;
+    this.truePoseSupplier = truePoseSupplier;
+
+    if (autos.strip().equals("*")) {
+      pending.addAll(robotContainer.getAutoRoutineNames());
+    } else {
+      for (String name : autos.split(",")) {
+        pending.add(name.strip());
+      }
+    }
+
+    String results = System.getProperty("simAutoResults");
+    resultsPath = Optional.ofNullable(results).filter(path -> !path.isBlank()).map(Path::of);
+
+    robotContainer.drive.addTrajectoryListener(this::onTrajectory);
+
+    SimHooks.pauseTiming();
+    DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+    DriverStationSim.setDsAttached(true);
+    setEnabled(false);
+  }
+
+  @Override
+  public void periodic() {
+    if (currentCommand == null) {
+      // Let the robot settle disabled between routines
+      if (++disabledCount < disabledLoops) {
+        return;
+      }
+      disabledCount = 0;
+
+      if (pending.isEmpty()) {
+        finishAll();
+        return;
+      }
+      start(pending.poll());
+      return;
+    }
+
+    trackPathError();
+
+    double elapsed = Timer.getFPGATimestamp() - startTime;
+    boolean completed = !currentCommand.isScheduled();
+    if (completed || elapsed >= timeoutSecs) {
+      finish(completed, elapsed);
+    }
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    SimHooks.stepTiming(Constants.loopPeriodSecs);
+  }
+
+  private void start(String name) {
+    Optional<Command> command = robotContainer.getAutoRoutine(name);
+    if (command.isEmpty()) {
+      System.err.println("[SimAuto] No auto routine named '" + name + "'");
+      anyFailed = true;
+      return;
+    }
+
+    currentName = name;
+    currentCommand = command.get();
+    lastSample = null;
+    pathErrorSum = 0.0;
+    pathErrorMax = 0.0;
+    pathErrorCount = 0;
+
+    setEnabled(true);
+    startTime = Timer.getFPGATimestamp();
+    CommandScheduler.getInstance().schedule(currentCommand);
+  }
+
+  private void onTrajectory(Trajectory<SwerveSample> trajectory, boolean isStarting) {
+    if (currentName == null) {
+      return;
+    }
+    if (isStarting) {
+      segmentStartTime = Timer.getFPGATimestamp();
+      return;
+    }
+
+    // Runs are always on the blue alliance, so the trajectory is never flipped
+    Optional<Pose2d> target = trajectory.getFinalPose(false);
+    if (target.isEmpty()) {
+      return;
+    }
+    Pose2d pose = truePoseSupplier.get();
+    writeResult(
+        "segment",
+        trajectory.name(),
+        true,
+        Timer.getFPGATimestamp() - segmentStartTime,
+        target.get().getTranslation().getDistance(pose.getTranslation()),
+        Math.abs(target.get().getRotation().minus(pose.getRotation()).getRadians()),
+        Double.NaN,
+        Double.NaN);
+  }
+
+  private void trackPathError() {
+    Optional<SwerveSample> sample = robotContainer.drive.getLastTrajectorySample();
+    if (sample.isEmpty() || sample.get() == lastSample) {
+      return;
+    }
+    lastSample = sample.get();
+
+    double error =
+        lastSample.getPose().getTranslation().getDistance(truePoseSupplier.get().getTranslation());
+    pathErrorSum += error;
+    pathErrorMax = Math.max(pathErrorMax, error);
+    pathErrorCount++;
+  }
+
+  private void finish(boolean completed, double elapsed) {
+    currentCommand.cancel();
+    setEnabled(false);
+
+    Pose2d pose = truePoseSupplier.get();
+    double finalError = Double.NaN;
+    double finalRotationError = Double.NaN;
+    if (lastSample != null) {
+      Pose2d target = lastSample.getPose();
+      finalError = target.getTranslation().getDistance(pose.getTranslation());
+      finalRotationError = Math.abs(target.getRotation().minus(pose.getRotation()).getRadians());
+    }
+    double meanPathError = pathErrorCount > 0 ? pathErrorSum / pathErrorCount : Double.NaN;
+
+    String key = "SimAuto/" + currentName;
+    Logger.recordOutput(key + "/Completed", completed);
+    Logger.recordOutput(key + "/SimTimeSecs", elapsed);
+    Logger.recordOutput(key + "/FinalErrorMeters", finalError);
+    Logger.recordOutput(key + "/FinalErrorRad", finalRotationError);
+    Logger.recordOutput(key + "/MeanPathErrorMeters", meanPathError);
+    Logger.recordOutput(key + "/MaxPathErrorMeters", pathErrorMax);
+
+    System.out.printf(
+        "[SimAuto] %-24s %-9s sim %6.2f s, final error %.3f m / %.1f deg,"
+            + " path error mean %.3f m / max %.3f m%n",
+        currentName,
+        completed ? "completed" : "TIMED OUT",
+        elapsed,
+        finalError,
+        Math.toDegrees(finalRotationError),
+        meanPathError,
+        pathErrorMax);
+
+    writeResult(
+        "auto",
+        currentName,
+        completed,
+        elapsed,
+        finalError,
+        finalRotationError,
+        meanPathError,
+        pathErrorMax);
+
+    anyFailed |= !completed;
+    currentName = null;
+    currentCommand = null;
+  }
+
+  private void finishAll() {
+    System.out.printf(
+        "[SimAuto] Finished in %.1f s of wall time%n", (System.nanoTime() - wallStartNanos) / 1e9);
+
+    Logger.end();
+    System.exit(anyFailed ? 1 : 0);
+  }
+
+  private void writeResult(
+      String kind,
+      String name,
+      boolean completed,
+      double elapsed,
+      double finalError,
+      double finalRotationError,
+      double meanPathError,
+      double maxPathError) {
+    if (resultsPath.isEmpty()) {
+      return;
+    }
+    appendResult(
+        resultsPath.get(),
+        String.join(
+            ",",
+            kind,
+            currentName,
+            name,
+            Boolean.toString(completed),
+            Double.toString(elapsed),
+            Double.toString(finalError),
+            Double.toString(finalRotationError),
+            Double.toString(meanPathError),
+            Double.toString(maxPathError)));
+  }
+
+  private static void appendResult(Path path, String line) {
+    try {
+      if (!Files.exists(path)) {
+        Files.write(path, List.of(resultsHeader));
+      }
+      Files.write(path, List.of(line), StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      System.err.println("[SimAuto] Failed to write results to " + path + ": " + e.getMessage());
+    }
+  }
+
+  private static void setEnabled(boolean enabled) {
+    DriverStationSim.setAutonomous(enabled);
+    DriverStationSim.setEnabled(enabled);
+    DriverStationSim.notifyNewData();
+  }
+}
@@ -0,0 +1,124 @@
+package frc.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.util.Units;
+import frc.robot.subsystems.vision.SimCameraConfig;
+import frc.robot.subsystems.vision.SimCameraConfig.CalibrationError;
+import frc.robot.subsystems.vision.SimCameraConfig.Latency;
+import java.util.Random;
+
+/**
+ * Seeded sensor noise for Monte Carlo runs in sim.
+ *
+ * <p>Noise is only enabled when the {@code simSeed} system property is set, otherwise the sim stays
+ * ideal. Per-run errors (wheel slip, gyro drift, camera calibration and latency) are drawn once
+ * from the seed, and per-loop jitter is drawn from a second generator with the same seed. Since
+ * headless sim steps time deterministically, the same seed always reproduces the same run.
+ */
+public final class SimNoise {
+  /** Fraction of wheel travel lost to slip, per module and run. */
+  public static final double wheelSlipStdDev = 0.02;
+
+  /** Fraction of wheel travel lost to slip, per module and loop. */
+  public static final double wheelSlipJitterStdDev = 0.01;
+
+  public static final double gyroDriftStdDevRadPerSec = Units.degreesToRadians(0.1);
+
+  /** Multiplier on the configured camera calibration error. */
+  public static final double cameraCalibErrorScaleStdDev = 0.5;
+
+  public static final double cameraLatencyStdDevMs = 10.0;
+
+  /** How far odometry samples land from their nominal time, like the odometry thread's jitter. */
+  public static final double odometryTimestampJitterStdDevSecs = 0.0005;
+
+  private static SimNoise instance = null;
+
+  private final boolean enabled;
+  private final long seed;
+  private final Random jitter;
+
+  private final double[] wheelGroundScales = new double[4];
+  private final double gyroDriftRadPerSec;
+  private final double cameraCalibErrorScale;
+  private final double cameraExtraLatencyMs;
+
+  public static SimNoise getInstance() {
+    if (instance == null) {
+      String seed = System.getProperty("simSeed");
+      instance =
+          seed == null || seed.isBlank()
+              ? new SimNoise(false, 0)
+              : new SimNoise(true, Long.parseLong(seed));
+    }
+    return instance;
+  }
+
+  private SimNoise(boolean enabled, long seed) {
+    this.enabled = enabled;
+    this.seed = seed;
+    this.jitter = new Random(seed + 1);
+
+    Random random = new Random(seed);
+    for (int i = 0; i < wheelGroundScales.length; i++) {
+      wheelGroundScales[i] =
+          enabled ? 1.0 - Math.abs(random.nextGaussian() * wheelSlipStdDev) : 1.0;
+    }
+    gyroDriftRadPerSec = enabled ? random.nextGaussian() * gyroDriftStdDevRadPerSec : 0.0;
+    cameraCalibErrorScale =
+        enabled ? Math.max(0.0, 1.0 + random.nextGaussian() * cameraCalibErrorScaleStdDev) : 1.0;
+    cameraExtraLatencyMs = enabled ? Math.abs(random.nextGaussian() * cameraLatencyStdDevMs) : 0.0;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns the fraction of this loop's wheel travel that actually moved the robot. Draws from the
+   * jitter generator, so call exactly once per module per loop.
+   */
+  public double getWheelGroundScale(int module) {
+    if (!enabled) {
+      return 1.0;
+    }
+    return wheelGroundScales[module]
+        * (1.0 - Math.abs(jitter.nextGaussian() * wheelSlipJitterStdDev));
+  }
+
+  /**
+   * Returns how late or early an odometry sample is taken, limited to a quarter period so samples
+   * stay in order. Draws from the jitter generator.
+   */
+  public double getOdometryTimestampJitterSecs(double samplePeriodSecs) {
+    if (!enabled) {
+      return 0.0;
+    }
+    double limit = samplePeriodSecs / 4.0;
+    return MathUtil.clamp(
+        jitter.nextGaussian() * odometryTimestampJitterStdDevSecs, -limit, limit);
+  }
+
+  public double getGyroDriftRadPerSec() {
+    return gyroDriftRadPerSec;
+  }
+
+  /** Returns the camera config with this run's calibration error and latency applied. */
+  public SimCameraConfig apply(SimCameraConfig config) {
+    if (!enabled) {
+      return config;
+    }
+    return new SimCameraConfig(
+        config.calib(),
+        new CalibrationError(
+            config.calibError().avgErrorPx() * cameraCalibErrorScale,
+            config.calibError().errorStdDevPx() * cameraCalibErrorScale),
+        new Latency(
+            config.latency().avgLatencyMs() + cameraExtraLatencyMs,
+            config.latency().latencyStdDevMs()));
+  }
+}
@@ -21,8 +21,11 @@ import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 public class SparkUtil {
-  /** Stores whether any error was has been detected by other utility methods. */
-  public static boolean sparkStickyFault = false;
+  /**
+   * Stores whether any error was has been detected by other utility methods. Volatile since {@link
+   * #tryUntilOk} sets it from the {@link DeviceConfigurator} threads.
+   */
+  public static volatile boolean sparkStickyFault = false;
 
   /** Processes a value from a Spark only if the value is valid. */
   public static void ifOk(SparkBase spark, DoubleSupplier supplier, DoubleConsumer consumer) {
@@ -48,15 +51,21 @@ public class SparkUtil {
     consumer.accept(values);
   }
 
-  /** Attempts to run the command until no error is produced. */
-  public static void tryUntilOk(SparkBase spark, int maxAttempts, Supplier<REVLibError> command) {
+  /**
+   * Attempts to run the command until no error is produced.
+   *
+   * @return whether it succeeded within the attempts
+   */
+  public static boolean tryUntilOk(
+      SparkBase spark, int maxAttempts, Supplier<REVLibError> command) {
     for (int i = 0; i < maxAttempts; i++) {
       var error = command.get();
       if (error == REVLibError.kOk) {
-        break;
+        return true;
       } else {
         sparkStickyFault = true;
       }
     }
+    return false;
   }
 }
@@ -0,0 +1,338 @@
+package frc.robot.util;
+
+import static edu.wpi.first.units.Units.Volts;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.controller.LinearQuadraticRegulator;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
+import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutineLog;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import org.ejml.simple.SimpleMatrix;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Fits feedforward gains on the robot from {@link SysIdRoutine} tests as they run, the way the
+ * SysId tool does on a laptop, so there's no log to pull off the robot first.
+ *
+ * <p>Like SysId's ordinary least squares, each loop's velocity is regressed on the previous loop's
+ * velocity, voltage and direction, plus gravity for elevators and arms, across every test run so
+ * far. Only the sums that regression needs are kept, so memory is constant however long the tests
+ * run. The fit's coefficients are converted to kS, kV, kA and kG, then to feedback gains with an
+ * LQR using SysId's default limits, ignoring measurement delay.
+ *
+ * <p>Gains, R², RMSE and the suggested gains are logged under {@code SysId/<name>} every loop and
+ * printed at the end of each test. So is the test's state, unless it's given a key of its own.
+ * Units are whatever the caller's positions, velocities and volts are in, except that arm positions
+ * are radians from horizontal.
+ */
+public class SysIdAnalyzer {
+  public static enum Mechanism {
+    /** Friction and inertia only, like a drivetrain or a flywheel. */
+    SIMPLE,
+
+    /** Constant gravity, like an elevator. */
+    ELEVATOR,
+
+    /** Gravity with the cosine of the position from horizontal, like an arm. */
+    ARM
+  }
+
+  // SysId's defaults for the LQR
+  private static final double maxPositionError = 1.0;
+  private static final double maxVelocityError = 1.5;
+  private static final double maxControlEffortVolts = 7.0;
+
+  /** Slower than this counts as stopped, where the direction of friction isn't known. */
+  private static final double minVelocity = 1e-2;
+
+  private final String name;
+  private final Mechanism mechanism;
+  private final int regressors;
+
+  private final String kSKey;
+  private final String kVKey;
+  private final String kAKey;
+  private final String kGKey;
+  private final String rSquaredKey;
+  private final String rmseKey;
+  private final String samplesKey;
+  private final String velocityKPKey;
+  private final String positionKPKey;
+  private final String positionKDKey;
+  private final String stateKey;
+
+  // Sums for the normal equations, over every pair of consecutive samples in the same test
+  private final double[] xtx;
+  private final double[] xty;
+  private final double[] x;
+  private double yty = 0.0;
+  private double sumY = 0.0;
+  private double sumDt = 0.0;
+  private int samples = 0;
+
+  // The previous loop's sample, paired with this loop's once the test is known to be the same
+  private SysIdRoutineLog.State lastState = SysIdRoutineLog.State.kNone;
+  private double lastVolts = 0.0;
+  private double lastPosition = 0.0;
+  private double lastVelocity = 0.0;
+  private double lastTimestamp = Double.NaN;
+
+  private double pendingVolts = 0.0;
+  private double pendingPosition = 0.0;
+  private double pendingVelocity = 0.0;
+  private double pendingTimestamp = Double.NaN;
+
+  private double kS = Double.NaN;
+  private double kV = Double.NaN;
+  private double kA = Double.NaN;
+  private double kG = Double.NaN;
+  private double rSquared = Double.NaN;
+  private double rmse = Double.NaN;
+  private double velocityKP = Double.NaN;
+  private double positionKP = Double.NaN;
+  private double positionKD = Double.NaN;
+
+  public SysIdAnalyzer(String name, Mechanism mechanism) {
+    this(name, mechanism, LogKeys.root("SysId").child(name).key("State"));
+  }
+
+  /**
+   * @param stateKey where to log the test's state, for mechanisms whose logs are already read from
+   *     a key of their own
+   */
+  public SysIdAnalyzer(String name, Mechanism mechanism, String stateKey) {
+    this.name = name;
+    this.mechanism = mechanism;
+    regressors = mechanism == Mechanism.SIMPLE ? 3 : 4;
+    xtx = new double[regressors * regressors];
+    xty = new double[regressors];
+    x = new double[regressors];
+
+    LogKeys logKeys = LogKeys.root("SysId").child(name);
+    kSKey = logKeys.key("KS");
+    kVKey = logKeys.key("KV");
+    kAKey = logKeys.key("KA");
+    kGKey = logKeys.key("KG");
+    rSquaredKey = logKeys.key("RSquared");
+    rmseKey = logKeys.key("RMSE");
+    samplesKey = logKeys.key("Samples");
+    velocityKPKey = logKeys.key("VelocityKP");
+    positionKPKey = logKeys.key("PositionKP");
+    positionKDKey = logKeys.key("PositionKD");
+    this.stateKey = stateKey;
+  }
+
+  /**
+   * Makes a routine whose callbacks run the mechanism and feed this analyzer.
+   *
+   * @param runVolts runs the mechanism at a voltage
+   * @param position only used for arms, in radians from horizontal
+   */
+  public SysIdRoutine createRoutine(
+      SysIdRoutine.Config config,
+      DoubleConsumer runVolts,
+      DoubleSupplier position,
+      DoubleSupplier velocity,
+      Subsystem subsystem) {
+    return new SysIdRoutine(
+        new SysIdRoutine.Config(
+            config.m_rampRate, config.m_stepVoltage, config.m_timeout, this::recordState),
+        new SysIdRoutine.Mechanism(
+            voltage -> {
+              pendingVolts = voltage.in(Volts);
+              runVolts.accept(pendingVolts);
+            },
+            log -> {
+              pendingPosition = position.getAsDouble();
+              pendingVelocity = velocity.getAsDouble();
+              pendingTimestamp = Timer.getFPGATimestamp();
+            },
+            subsystem,
+            name));
+  }
+
+  /** Called last every loop of a test, then with {@code kNone} once it ends. */
+  private void recordState(SysIdRoutineLog.State state) {
+    Logger.recordOutput(stateKey, state.toString());
+
+    if (state == SysIdRoutineLog.State.kNone) {
+      if (lastState != SysIdRoutineLog.State.kNone) {
+        printResults();
+      }
+      lastState = state;
+      lastTimestamp = Double.NaN;
+      return;
+    }
+
+    if (state == lastState && !Double.isNaN(lastTimestamp)) {
+      addPair(pendingVelocity, pendingTimestamp - lastTimestamp);
+      solve();
+      log();
+    }
+
+    lastState = state;
+    lastVolts = pendingVolts;
+    lastPosition = pendingPosition;
+    lastVelocity = pendingVelocity;
+    lastTimestamp = pendingTimestamp;
+  }
+
+  /** Adds the previous sample as regressors, and the velocity it led to. */
+  private void addPair(double velocity, double dt) {
+    if (Math.abs(lastVelocity) < minVelocity || dt <= 0.0) {
+      return;
+    }
+
+    x[0] = lastVelocity;
+    x[1] = lastVolts;
+    x[2] = Math.signum(lastVelocity);
+    if (mechanism == Mechanism.ELEVATOR) {
+      x[3] = 1.0;
+    } else if (mechanism == Mechanism.ARM) {
+      x[3] = Math.cos(lastPosition);
+    }
+
+    for (int i = 0; i < regressors; i++) {
+      for (int j = 0; j < regressors; j++) {
+        xtx[i * regressors + j] += x[i] * x[j];
+      }
+      xty[i] += x[i] * velocity;
+    }
+    yty += velocity * velocity;
+    sumY += velocity;
+    sumDt += dt;
+    samples++;
+  }
+
+  /**
+   * Solves for the discrete model {@code v[k+1] = alpha v[k] + beta u[k] + gamma sign(v[k]) +
+   * delta g[k]} and converts it to gains.
+   */
+  private void solve() {
+    if (samples <= regressors) {
+      return;
+    }
+
+    double[] coefficients;
+    try {
+      coefficients =
+          new SimpleMatrix(regressors, regressors, true, xtx)
+              .solve(new SimpleMatrix(regressors, 1, true, xty))
+              .getDDRM()
+              .getData();
+    } catch (RuntimeException e) {
+      return; // Singular until the tests have moved the mechanism both ways
+    }
+
+    // Residuals from the sums alone: y'y - 2 c'X'y + c'X'Xc
+    double residualSquares = yty;
+    for (int i = 0; i < regressors; i++) {
+      residualSquares -= 2.0 * coefficients[i] * xty[i];
+      for (int j = 0; j < regressors; j++) {
+        residualSquares += coefficients[i] * xtx[i * regressors + j] * coefficients[j];
+      }
+    }
+    residualSquares = Math.max(residualSquares, 0.0);
+    double totalSquares = yty - sumY * sumY / samples;
+    rSquared = totalSquares > 0.0 ? 1.0 - residualSquares / totalSquares : Double.NaN;
+    rmse = Math.sqrt(residualSquares / samples);
+
+    double alpha = coefficients[0];
+    double beta = coefficients[1];
+    double dt = sumDt / samples;
+    if (!(alpha > 0.0 && alpha < 1.0) || !(beta != 0.0 && Double.isFinite(beta))) {
+      kS = kV = kA = kG = Double.NaN; // Not a stable first order system, so no gains
+      return;
+    }
+
+    // Continuous dv/dt = A v + B u + C sign(v) + D g, where the discrete terms are each
+    // (alpha - 1) / A times the continuous ones
+    double a = Math.log(alpha) / dt;
+    double scale = a / (alpha - 1.0);
+    kA = 1.0 / (beta * scale);
+    kV = -a * kA;
+    kS = -coefficients[2] * scale * kA;
+    kG = regressors > 3 ? -coefficients[3] * scale * kA : 0.0;
+
+    suggestFeedback(dt);
+  }
+
+  private void suggestFeedback(double dt) {
+    if (!(kV > 0.0 && kA > 0.0)) {
+      velocityKP = positionKP = positionKD = Double.NaN;
+      return;
+    }
+
+    velocityKP =
+        new LinearQuadraticRegulator<>(
+                LinearSystemId.identifyVelocitySystem(kV, kA),
+                VecBuilder.fill(maxVelocityError),
+                VecBuilder.fill(maxControlEffortVolts),
+                dt)
+            .getK()
+            .get(0, 0);
+
+    var positionController =
+        new LinearQuadraticRegulator<>(
+            LinearSystemId.identifyPositionSystem(kV, kA),
+            VecBuilder.fill(maxPositionError, maxVelocityError),
+            VecBuilder.fill(maxControlEffortVolts),
+            dt);
+    positionKP = positionController.getK().get(0, 0);
+    positionKD = positionController.getK().get(0, 1);
+  }
+
+  private void log() {
+    Logger.recordOutput(kSKey, kS);
+    Logger.recordOutput(kVKey, kV);
+    Logger.recordOutput(kAKey, kA);
+    Logger.recordOutput(kGKey, kG);
+    Logger.recordOutput(rSquaredKey, rSquared);
+    Logger.recordOutput(rmseKey, rmse);
+    Logger.recordOutput(samplesKey, samples);
+    Logger.recordOutput(velocityKPKey, velocityKP);
+    Logger.recordOutput(positionKPKey, positionKP);
+    Logger.recordOutput(positionKDKey, positionKD);
+  }
+
+  /** Forgets every test, like after changing the mechanism. */
+  public void reset() {
+    for (int i = 0; i < xtx.length; i++) {
+      xtx[i] = 0.0;
+    }
+    for (int i = 0; i < xty.length; i++) {
+      xty[i] = 0.0;
+    }
+    yty = 0.0;
+    sumY = 0.0;
+    sumDt = 0.0;
+    samples = 0;
+    lastTimestamp = Double.NaN;
+    kS = kV = kA = kG = Double.NaN;
+    rSquared = rmse = Double.NaN;
+    velocityKP = positionKP = positionKD = Double.NaN;
+  }
+
+  private void printResults() {
+    NumberFormat formatter = new DecimalFormat("#0.00000");
+    System.out.println("********** " + name + " SysId Results **********");
+    System.out.println("\tkS: " + formatter.format(kS));
+    System.out.println("\tkV: " + formatter.format(kV));
+    System.out.println("\tkA: " + formatter.format(kA));
+    if (mechanism != Mechanism.SIMPLE) {
+      System.out.println("\tkG: " + formatter.format(kG));
+    }
+    System.out.println("\tR²: " + formatter.format(rSquared));
+    System.out.println("\tRMSE: " + formatter.format(rmse));
+    System.out.println("\tVelocity kP: " + formatter.format(velocityKP));
+    System.out.println("\tPosition kP: " + formatter.format(positionKP));
+    System.out.println("\tPosition kD: " + formatter.format(positionKD));
+    System.out.println("\tSamples: " + samples);
+  }
+}
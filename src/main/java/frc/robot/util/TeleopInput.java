@@ -0,0 +1,86 @@
+package frc.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
+import frc.robot.Constants;
+import frc.robot.field.FieldUtils;
+
+/**
+ * Driver stick input for field relative driving, read once per loop without allocating.
+ *
+ * <p>{@link #update} reads each axis once. The left stick gets a radial deadband, which doesn't cut
+ * off diagonals near the center like a deadband per axis does, then its magnitude is squared and
+ * how fast it changes is limited. The right stick's X gets the same treatment on its own. Results
+ * are fractions of full speed in field coordinates, already flipped for the red alliance, which is
+ * only checked by {@link #reset} instead of every loop.
+ */
+public class TeleopInput {
+  private static final double dt = Constants.loopPeriodSecs;
+
+  private final XboxController controller;
+
+  private double linearX = 0.0;
+  private double linearY = 0.0;
+  private double angular = 0.0;
+  private double flip = 1.0;
+
+  public TeleopInput(CommandXboxController controller) {
+    this.controller = controller.getHID();
+  }
+
+  /** Checks the alliance and starts from a stop. Call when the drive command starts. */
+  public void reset() {
+    flip = FieldUtils.getFlipped();
+    linearX = 0.0;
+    linearY = 0.0;
+    angular = 0.0;
+  }
+
+  /** Reads the sticks. Call once per loop, before the getters. */
+  public void update() {
+    // Forward and left, from the driver's point of view
+    double x = -controller.getLeftY();
+    double y = -controller.getLeftX();
+
+    double magnitude = Math.hypot(x, y);
+    double scale = shape(magnitude) / Math.max(magnitude, 1e-9);
+    double targetX = x * scale * flip;
+    double targetY = y * scale * flip;
+
+    // Limits the change of the whole vector, so it doesn't curve while speeding up
+    double deltaX = targetX - linearX;
+    double deltaY = targetY - linearY;
+    double delta = Math.hypot(deltaX, deltaY);
+    double maxDelta = Constants.teleopLinearSlewRate * dt;
+    double deltaScale = delta > maxDelta ? maxDelta / delta : 1.0;
+    linearX += deltaX * deltaScale;
+    linearY += deltaY * deltaScale;
+
+    double rightX = controller.getRightX();
+    double targetAngular = Math.copySign(shape(Math.abs(rightX)), rightX);
+    double maxAngularDelta = Constants.teleopAngularSlewRate * dt;
+    angular += MathUtil.clamp(targetAngular - angular, -maxAngularDelta, maxAngularDelta);
+  }
+
+  /** Field relative, towards the red alliance wall. */
+  public double getLinearX() {
+    return linearX;
+  }
+
+  /** Field relative, towards the left of the blue alliance wall. */
+  public double getLinearY() {
+    return linearY;
+  }
+
+  /** The right stick's X, squared. */
+  public double getAngular() {
+    return angular;
+  }
+
+  /** Deadband, rescaled so the output still starts at zero, then squared. */
+  private static double shape(double magnitude) {
+    double value = MathUtil.applyDeadband(Math.min(magnitude, 1.0), Constants.controllerDeadband);
+    return value * value;
+  }
+}
@@ -0,0 +1,159 @@
+package frc.robot.util;
+
+import choreo.Choreo;
+import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Parses every Choreo trajectory in the deploy directory on a background thread at boot, so
+ * building and starting autos never waits on the disk or the JSON parser.
+ *
+ * <p>Compiled {@link TrajectoryFile}s are read when there is one, falling back to Choreo's JSON
+ * loader. Each trajectory is kept as Choreo's {@link Trajectory}, for the {@code AutoFactory}.
+ * Asking for a trajectory the thread hasn't reached yet loads it on the spot. Load time and the
+ * heap each trajectory's samples keep are logged once everything is loaded.
+ */
+public class TrajectoryCache extends VirtualSubsystem {
+  public static record Entry(
+      Trajectory<SwerveSample> trajectory, long retainedBytes, double parseMs, boolean compiled) {}
+
+  private static final String logRoot = "TrajectoryCache";
+  private static final String totalParseMsKey = logRoot + "/TotalParseMS";
+  private static final String totalBytesKey = logRoot + "/TotalRetainedBytes";
+  private static final String failedKey = logRoot + "/Failed";
+
+  private static TrajectoryCache instance = null;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<String> failed = new ConcurrentLinkedQueue<>();
+  private volatile boolean loaded = false;
+  private boolean logged = false;
+
+  public static TrajectoryCache getInstance() {
+    if (instance == null) {
+      instance = new TrajectoryCache();
+    }
+    return instance;
+  }
+
+  private TrajectoryCache() {
+    Thread loader = new Thread(this::loadAll, "TrajectoryCache");
+    loader.setDaemon(true);
+    loader.setPriority(Thread.MIN_PRIORITY);
+    loader.start();
+  }
+
+  public Optional<Trajectory<SwerveSample>> getTrajectory(String name) {
+    return getEntry(name).map(Entry::trajectory);
+  }
+
+  /** Whether the background thread has been through every trajectory. */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  private Optional<Entry> getEntry(String name) {
+    Entry entry = entries.get(name);
+    return entry != null ? Optional.of(entry) : load(name);
+  }
+
+  private void loadAll() {
+    File[] files =
+        new File(Filesystem.getDeployDirectory(), "choreo")
+            .listFiles((dir, fileName) -> fileName.endsWith(".traj"));
+    if (files != null) {
+      Arrays.sort(files);
+      for (File file : files) {
+        String name = file.getName().substring(0, file.getName().length() - ".traj".length());
+        if (!entries.containsKey(name)) {
+          load(name);
+        }
+      }
+    }
+    loaded = true;
+  }
+
+  /** Safe to call from both threads, if both parse the same trajectory the first one is kept. */
+  private Optional<Entry> load(String name) {
+    long startNanos = System.nanoTime();
+    Optional<TrajectoryFile.Mapped> compiled = TrajectoryFile.open(name);
+    Optional<Trajectory<SwerveSample>> trajectory =
+        compiled.isPresent()
+            ? Optional.of(compiled.get().toTrajectory())
+            : Choreo.loadTrajectory(name);
+    if (trajectory.isEmpty() || trajectory.get().samples().isEmpty()) {
+      failed.add(name);
+      return Optional.empty();
+    }
+
+    Entry entry =
+        new Entry(
+            trajectory.get(),
+            getRetainedBytes(trajectory.get()),
+            (System.nanoTime() - startNanos) / 1e6,
+            compiled.isPresent());
+    Entry existing = entries.putIfAbsent(name, entry);
+    return Optional.of(existing != null ? existing : entry);
+  }
+
+  /**
+   * Heap kept by a trajectory's samples, assuming a 64-bit JVM with compressed pointers. Each
+   * {@link SwerveSample} is a 12 byte header, ten doubles and references to its two module force
+   * arrays, each array is a 16 byte header and a double per module, and the sample list holds a
+   * reference to every sample. Splits and events are small enough to leave out.
+   */
+  private static long getRetainedBytes(Trajectory<SwerveSample> trajectory) {
+    List<SwerveSample> samples = trajectory.samples();
+    long bytes = alignedBytes(16 + (long) samples.size() * Integer.BYTES);
+    for (SwerveSample sample : samples) {
+      bytes += alignedBytes(12 + 10 * Double.BYTES + 2 * Integer.BYTES);
+      bytes += alignedBytes(16 + sample.moduleForcesX().length * Double.BYTES);
+      bytes += alignedBytes(16 + sample.moduleForcesY().length * Double.BYTES);
+    }
+    return bytes;
+  }
+
+  /** Objects take up a multiple of 8 bytes. */
+  private static long alignedBytes(long bytes) {
+    return (bytes + 7) / 8 * 8;
+  }
+
+  @Override
+  public void periodic() {
+    // Logged from the main thread, once
+    if (!loaded || logged) {
+      return;
+    }
+    logged = true;
+
+    double totalParseMs = 0.0;
+    long totalBytes = 0;
+    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+      LogKeys keys = LogKeys.root(logRoot).child(entry.getKey());
+      Logger.recordOutput(keys.key("ParseMS"), entry.getValue().parseMs());
+      Logger.recordOutput(keys.key("RetainedBytes"), entry.getValue().retainedBytes());
+      Logger.recordOutput(keys.key("Compiled"), entry.getValue().compiled());
+      totalParseMs += entry.getValue().parseMs();
+      totalBytes += entry.getValue().retainedBytes();
+    }
+
+    Logger.recordOutput(totalParseMsKey, totalParseMs);
+    Logger.recordOutput(totalBytesKey, totalBytes);
+    Logger.recordOutput(failedKey, failed.toArray(String[]::new));
+    System.out.printf(
+        "[TrajectoryCache] Loaded %d trajectories in %.0f ms, %d KB of samples%n",
+        entries.size(), totalParseMs, totalBytes / 1024);
+  }
+
+  @Override
+  public void simulationPeriodic() {}
+}
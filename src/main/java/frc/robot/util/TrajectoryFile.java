@@ -0,0 +1,250 @@
+package frc.robot.util;
+
+import choreo.trajectory.EventMarker;
+import choreo.trajectory.SwerveSample;
+import choreo.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotBase;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compact binary trajectories, compiled from the Choreo {@code .traj} files by {@code ./gradlew
+ * compileChoreoTrajectories} and memory mapped on the robot instead of parsing JSON.
+ *
+ * <p>Layout, little endian:
+ *
+ * <ul>
+ *   <li>Header: magic, version, sample count, module count, split count, event count, all ints
+ *   <li>Split indices, ints, padded to 8 bytes
+ *   <li>Columns of doubles, one per field: t, x, y, heading, vx, vy, omega, ax, ay, alpha
+ *   <li>Columns of floats, one per module: forces x, then forces y
+ *   <li>Events: timestamp as a double, name length as an int, then the name in UTF-8
+ * </ul>
+ *
+ * <p>The {@code .traj} files stay the editable source; only samples, splits and events are kept.
+ */
+public final class TrajectoryFile {
+  public static final String extension = ".ctraj";
+
+  private static final int magic = 0x4A525443; // "CTRJ"
+  private static final int version = 1;
+  private static final int headerBytes = 6 * Integer.BYTES;
+  private static final int doubleColumns = 10;
+
+  private TrajectoryFile() {}
+
+  /** A compiled trajectory, read straight out of the mapped file. */
+  public static final class Mapped {
+    private final String name;
+    private final ByteBuffer buffer;
+    private final int sampleCount;
+    private final int moduleCount;
+    private final int splitCount;
+    private final int eventCount;
+    private final int columnsOffset;
+    private final int forcesOffset;
+    private final int eventsOffset;
+
+    private Mapped(String name, ByteBuffer buffer) throws IOException {
+      this.name = name;
+      this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt(0) != magic || buffer.getInt(Integer.BYTES) != version) {
+        throw new IOException(name + extension + " is not a version " + version + " trajectory");
+      }
+      sampleCount = buffer.getInt(2 * Integer.BYTES);
+      moduleCount = buffer.getInt(3 * Integer.BYTES);
+      splitCount = buffer.getInt(4 * Integer.BYTES);
+      eventCount = buffer.getInt(5 * Integer.BYTES);
+      columnsOffset = getColumnsOffset(splitCount);
+      forcesOffset = columnsOffset + doubleColumns * sampleCount * Double.BYTES;
+      eventsOffset = forcesOffset + 2 * moduleCount * sampleCount * Float.BYTES;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getSampleCount() {
+      return sampleCount;
+    }
+
+    public double getTimestamp(int index) {
+      return getColumn(0, index);
+    }
+
+    public SwerveSample getSample(int index) {
+      double[] forcesX = new double[moduleCount];
+      double[] forcesY = new double[moduleCount];
+      for (int module = 0; module < moduleCount; module++) {
+        forcesX[module] = getForce(module, index);
+        forcesY[module] = getForce(moduleCount + module, index);
+      }
+      return new SwerveSample(
+          getColumn(0, index),
+          getColumn(1, index),
+          getColumn(2, index),
+          getColumn(3, index),
+          getColumn(4, index),
+          getColumn(5, index),
+          getColumn(6, index),
+          getColumn(7, index),
+          getColumn(8, index),
+          getColumn(9, index),
+          forcesX,
+          forcesY);
+    }
+
+    /** Copies the whole trajectory onto the heap, in the form the {@code AutoFactory} takes. */
+    public Trajectory<SwerveSample> toTrajectory() {
+      List<SwerveSample> samples = new ArrayList<>(sampleCount);
+      for (int i = 0; i < sampleCount; i++) {
+        samples.add(getSample(i));
+      }
+
+      List<Integer> splits = new ArrayList<>(splitCount);
+      for (int i = 0; i < splitCount; i++) {
+        splits.add(buffer.getInt(headerBytes + i * Integer.BYTES));
+      }
+
+      List<EventMarker> events = new ArrayList<>(eventCount);
+      int offset = eventsOffset;
+      for (int i = 0; i < eventCount; i++) {
+        double timestamp = buffer.getDouble(offset);
+        int length = buffer.getInt(offset + Double.BYTES);
+        byte[] bytes = new byte[length];
+        buffer.get(offset + Double.BYTES + Integer.BYTES, bytes);
+        events.add(new EventMarker(timestamp, new String(bytes, StandardCharsets.UTF_8)));
+        offset += Double.BYTES + Integer.BYTES + length;
+      }
+
+      return new Trajectory<>(name, samples, splits, events);
+    }
+
+    private double getColumn(int column, int index) {
+      return buffer.getDouble(columnsOffset + (column * sampleCount + index) * Double.BYTES);
+    }
+
+    private double getForce(int column, int index) {
+      return buffer.getFloat(forcesOffset + (column * sampleCount + index) * Float.BYTES);
+    }
+  }
+
+  /**
+   * Maps a compiled trajectory, if there is one. In sim, one older than its {@code .traj} is
+   * ignored, since it was compiled before the last edit in Choreo.
+   */
+  public static Optional<Mapped> open(String name) {
+    File file = new File(getDirectory(), name + extension);
+    if (!file.isFile()) {
+      return Optional.empty();
+    }
+    if (!RobotBase.isReal()) {
+      File source = new File(Filesystem.getDeployDirectory(), "choreo/" + name + ".traj");
+      if (source.lastModified() > file.lastModified()) {
+        return Optional.empty();
+      }
+    }
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return Optional.of(
+          new Mapped(name, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+    } catch (IOException e) {
+      System.err.println("[TrajectoryFile] Failed to read " + file + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Writes a compiled trajectory. Samples must all have the same number of modules. */
+  public static void write(
+      Path path, List<SwerveSample> samples, List<Integer> splits, List<EventMarker> events)
+      throws IOException {
+    int sampleCount = samples.size();
+    int moduleCount = sampleCount > 0 ? samples.get(0).moduleForcesX().length : 0;
+
+    List<byte[]> eventNames = new ArrayList<>();
+    int eventBytes = 0;
+    for (EventMarker event : events) {
+      byte[] name = event.event.getBytes(StandardCharsets.UTF_8);
+      eventNames.add(name);
+      eventBytes += Double.BYTES + Integer.BYTES + name.length;
+    }
+
+    int columnsOffset = getColumnsOffset(splits.size());
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+                columnsOffset
+                    + doubleColumns * sampleCount * Double.BYTES
+                    + 2 * moduleCount * sampleCount * Float.BYTES
+                    + eventBytes)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+    buffer.putInt(magic).putInt(version).putInt(sampleCount).putInt(moduleCount);
+    buffer.putInt(splits.size()).putInt(events.size());
+    for (int split : splits) {
+      buffer.putInt(split);
+    }
+    buffer.position(columnsOffset);
+
+    for (int column = 0; column < doubleColumns; column++) {
+      for (SwerveSample sample : samples) {
+        buffer.putDouble(
+            switch (column) {
+              case 0 -> sample.t;
+              case 1 -> sample.x;
+              case 2 -> sample.y;
+              case 3 -> sample.heading;
+              case 4 -> sample.vx;
+              case 5 -> sample.vy;
+              case 6 -> sample.omega;
+              case 7 -> sample.ax;
+              case 8 -> sample.ay;
+              default -> sample.alpha;
+            });
+      }
+    }
+    for (int module = 0; module < moduleCount; module++) {
+      for (SwerveSample sample : samples) {
+        buffer.putFloat((float) sample.moduleForcesX()[module]);
+      }
+    }
+    for (int module = 0; module < moduleCount; module++) {
+      for (SwerveSample sample : samples) {
+        buffer.putFloat((float) sample.moduleForcesY()[module]);
+      }
+    }
+
+    for (int i = 0; i < events.size(); i++) {
+      buffer.putDouble(events.get(i).timestamp);
+      buffer.putInt(eventNames.get(i).length);
+      buffer.put(eventNames.get(i));
+    }
+
+    Files.write(path, buffer.array());
+  }
+
+  /**
+   * Where compiled trajectories are deployed, or where the sim finds them in the build. Not a
+   * constant so the compiler can write files without loading the HAL.
+   */
+  public static File getDirectory() {
+    return RobotBase.isReal()
+        ? new File(Filesystem.getOperatingDirectory(), "choreo")
+        : new File(Filesystem.getOperatingDirectory(), "build/choreo");
+  }
+
+  private static int getColumnsOffset(int splitCount) {
+    int offset = headerBytes + splitCount * Integer.BYTES;
+    return (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+  }
+}
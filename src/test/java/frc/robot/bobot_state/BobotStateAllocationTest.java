@@ -0,0 +1,35 @@
+package frc.robot.bobot_state;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.util.AllocationBudget;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Allocation budget for {@link BobotState}, with the robot circling the blue reef. */
+public class BobotStateAllocationTest {
+  @BeforeAll
+  public static void setupHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  @Test
+  public void periodic() {
+    BobotState bobotState = new BobotState();
+    double[] time = {0.0};
+
+    AllocationBudget.assertWithinBudget(
+        "BobotState.periodic",
+        AllocationBudget.bobotState,
+        () -> {
+          time[0] += 0.02;
+          BobotState.updateGlobalPose(
+              new Pose2d(
+                  4.5 + 2.0 * Math.cos(time[0]),
+                  4.0 + 2.0 * Math.sin(time[0]),
+                  Rotation2d.fromRadians(time[0])));
+          bobotState.periodic();
+        });
+  }
+}
@@ -0,0 +1,157 @@
+package frc.robot.subsystems.drive;
+
+import choreo.trajectory.SwerveSample;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.util.AllocationBudget;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Allocation budgets for {@link Drive} and its modules, with stub IO like in replay. The stubs hand
+ * over two odometry samples a loop, what the odometry thread reads at its configured rate, of the
+ * robot driving an arc.
+ */
+public class DriveAllocationTest {
+  private static final int samples = 2;
+
+  private double time;
+  private final double[] sampleTimestamps = new double[samples];
+  private final double[][] sampleDrivePositions = new double[4][samples];
+  private final Rotation2d[] sampleTurnPositions = new Rotation2d[samples];
+  private final Rotation2d[] sampleYaws = new Rotation2d[samples];
+
+  /** Hands over this loop's samples for one module. */
+  private class ModuleIOStub implements ModuleIO {
+    private final int index;
+
+    private ModuleIOStub(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+      inputs.driveConnected = true;
+      inputs.turnConnected = true;
+      inputs.odometryTimestamps = sampleTimestamps;
+      inputs.odometryDrivePositionsRad = sampleDrivePositions[index];
+      inputs.odometryTurnPositions = sampleTurnPositions;
+    }
+  }
+
+  private class GyroIOStub implements GyroIO {
+    @Override
+    public void updateInputs(GyroIOInputs inputs) {
+      inputs.connected = true;
+      inputs.odometryYawTimestamps = sampleTimestamps;
+      inputs.odometryYawPositions = sampleYaws;
+    }
+  }
+
+  @BeforeAll
+  public static void setupHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  @BeforeEach
+  public void setup() {
+    time = 0.0;
+    nextSamples();
+  }
+
+  private void nextSamples() {
+    for (int i = 0; i < samples; i++) {
+      time += 1.0 / DriveConstants.odometryFrequency;
+      sampleTimestamps[i] = time;
+      for (int module = 0; module < 4; module++) {
+        sampleDrivePositions[module][i] =
+            time * 3.0 * (1.0 + 0.05 * module) / DriveConstants.wheelRadiusMeters;
+      }
+      sampleTurnPositions[i] = Rotation2d.fromRadians(0.3 * Math.sin(time));
+      sampleYaws[i] = Rotation2d.fromRadians(0.5 * time);
+    }
+  }
+
+  @Test
+  public void drivePeriodic() {
+    Drive drive =
+        new Drive(
+            new GyroIOStub(),
+            new ModuleIOStub(0),
+            new ModuleIOStub(1),
+            new ModuleIOStub(2),
+            new ModuleIOStub(3));
+
+    AllocationBudget.assertWithinBudget(
+        "Drive.periodic",
+        AllocationBudget.drive,
+        () -> {
+          nextSamples();
+          drive.periodic();
+        });
+  }
+
+  @Test
+  public void trajectoryFollowing() {
+    Drive drive =
+        new Drive(
+            new GyroIOStub(),
+            new ModuleIOStub(0),
+            new ModuleIOStub(1),
+            new ModuleIOStub(2),
+            new ModuleIOStub(3));
+
+    // A lap of a 2 m circle at 2 m/s, made up front so only following it is measured
+    SwerveSample[] trajectory = new SwerveSample[315];
+    ChassisSpeeds[] joystickSpeeds = new ChassisSpeeds[trajectory.length];
+    for (int i = 0; i < trajectory.length; i++) {
+      double t = i * 0.02;
+      double heading = t; // 1 rad/s around the circle, facing along it
+      trajectory[i] =
+          new SwerveSample(
+              t,
+              4.5 + 2.0 * Math.cos(heading),
+              4.0 + 2.0 * Math.sin(heading),
+              heading,
+              -2.0 * Math.sin(heading),
+              2.0 * Math.cos(heading),
+              1.0,
+              -2.0 * Math.cos(heading),
+              -2.0 * Math.sin(heading),
+              0.0,
+              new double[4],
+              new double[4]);
+      joystickSpeeds[i] = new ChassisSpeeds(Math.cos(heading), Math.sin(heading), -1.0);
+    }
+    int[] loop = {0};
+
+    AllocationBudget.assertWithinBudget(
+        "Drive.followTrajectory and runVelocity",
+        AllocationBudget.trajectoryFollowing,
+        () -> {
+          int i = loop[0]++ % trajectory.length;
+          drive.followTrajectory(trajectory[i]);
+          drive.runVelocity(joystickSpeeds[i]);
+        });
+  }
+
+  @Test
+  public void modulePeriodic() {
+    Module[] modules = new Module[4];
+    for (int i = 0; i < 4; i++) {
+      modules[i] = new Module(new ModuleIOStub(i), i);
+    }
+
+    AllocationBudget.assertWithinBudget(
+        "Module.periodic",
+        AllocationBudget.modules,
+        () -> {
+          nextSamples();
+          for (Module module : modules) {
+            module.periodic();
+          }
+        });
+  }
+}
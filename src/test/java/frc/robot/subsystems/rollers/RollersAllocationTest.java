@@ -0,0 +1,32 @@
+package frc.robot.subsystems.rollers;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.subsystems.rollers.follow.FollowRollers;
+import frc.robot.subsystems.rollers.follow.FollowRollersIO;
+import frc.robot.subsystems.rollers.single.SingleRoller;
+import frc.robot.subsystems.rollers.single.SingleRollerIO;
+import frc.robot.util.AllocationBudget;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Allocation budget for the roller subsystems together, with stub IO like in replay. */
+public class RollersAllocationTest {
+  @BeforeAll
+  public static void setupHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  @Test
+  public void periodic() {
+    SingleRoller singleRoller = new SingleRoller("SingleRoller", new SingleRollerIO() {});
+    FollowRollers followRollers = new FollowRollers("FollowRollers", new FollowRollersIO() {});
+
+    AllocationBudget.assertWithinBudget(
+        "Rollers periodic",
+        AllocationBudget.rollers,
+        () -> {
+          singleRoller.periodic();
+          followRollers.periodic();
+        });
+  }
+}
@@ -0,0 +1,113 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.robot.bobot_state.BobotState;
+import frc.robot.subsystems.vision.VisionConstants.PoseEstimationMethod;
+import frc.robot.util.AllocationBudget;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Allocation budget for {@link Vision}, with stub IO like in replay. Every camera sees two tags and
+ * rejects a third each loop, with a multi-tag and a trig observation accepted and one rejected.
+ */
+public class VisionAllocationTest {
+  private static final Pose3d tagPose = new Pose3d(3.66, 4.03, 0.31, new Rotation3d(0, 0, Math.PI));
+  private static final Pose3d robotPose = new Pose3d(2.5, 4.0, 0.0, new Rotation3d());
+
+  /** Hands over the same loop of detections every time, made up front so they aren't measured. */
+  private static class AprilTagIOStub implements AprilTagIO {
+    private final int[] ids = {17, 18};
+    private final int[] rejectedIds = {7};
+    private final Pose3d[] tagPoses = {tagPose, tagPose};
+    private final Pose3d[] rejectedTagPoses = {tagPose};
+    private final Pose3d[] poses = {robotPose, robotPose};
+    private final Pose3d[] rejectedPoses = {robotPose};
+    private final Translation2d[] corners = new Translation2d[8];
+    private final Translation2d[] rejectedCorners = new Translation2d[4];
+    private final PoseObservation[] observations;
+    private final PoseObservation[] rejectedObservations;
+
+    private AprilTagIOStub() {
+      for (int i = 0; i < corners.length; i++) {
+        corners[i] = new Translation2d(400 + 10 * i, 300 - 5 * i);
+      }
+      for (int i = 0; i < rejectedCorners.length; i++) {
+        rejectedCorners[i] = new Translation2d(900 + 3 * i, 100 + 3 * i);
+      }
+      observations =
+          new PoseObservation[] {
+            new PoseObservation(
+                robotPose,
+                1.0,
+                VisionConstants.noAmbiguity,
+                -1,
+                VecBuilder.fill(0.3, 0.3, 0.6),
+                PoseEstimationMethod.MULTI_TAG),
+            new PoseObservation(
+                robotPose,
+                1.0,
+                0.02,
+                18,
+                VecBuilder.fill(0.2, 0.2, 0.5),
+                PoseEstimationMethod.TRIG)
+          };
+      rejectedObservations =
+          new PoseObservation[] {
+            new PoseObservation(
+                robotPose,
+                1.0,
+                0.4,
+                7,
+                VecBuilder.fill(1.0, 1.0, 2.0),
+                PoseEstimationMethod.SINGLE_TAG)
+          };
+    }
+
+    @Override
+    public void updateInputs(AprilTagIOInputs inputs) {
+      inputs.connected = true;
+      inputs.validCorners = corners;
+      inputs.rejectedCorners = rejectedCorners;
+      inputs.validIds = ids;
+      inputs.rejectedIds = rejectedIds;
+      inputs.validAprilTagPoses = tagPoses;
+      inputs.rejectedAprilTagPoses = rejectedTagPoses;
+      inputs.validPoseObservations = observations;
+      inputs.rejectedPoseObservations = rejectedObservations;
+      inputs.validPoses = poses;
+      inputs.rejectedPoses = rejectedPoses;
+    }
+  }
+
+  @BeforeAll
+  public static void setupHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  @Test
+  public void periodic() {
+    List<AprilTagIO> ios = new ArrayList<>();
+    for (int i = 0; i < VisionConstants.aprilTagCamerasConfigs.size(); i++) {
+      ios.add(new AprilTagIOStub());
+    }
+    Vision vision = new Vision(ios);
+
+    AllocationBudget.assertWithinBudget(
+        "Vision.periodic",
+        AllocationBudget.vision,
+        () -> {
+          vision.periodic();
+
+          // Drive takes the observations every loop
+          BobotState.getGlobalVisionObservations().clear();
+          BobotState.getConstrainedVisionObservations().clear();
+        });
+  }
+}
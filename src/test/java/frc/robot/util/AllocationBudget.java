@@ -0,0 +1,82 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-loop heap allocation budgets for the periodic hot paths.
+ *
+ * <p>A test runs a periodic method until the JIT has warmed it up, then reads how many bytes the
+ * test's thread allocated over many more loops and fails if the average per loop is over budget.
+ * Each budget is about twice what its path allocates today, so a regression that allocates a few
+ * more objects every loop fails. Tighten a budget when allocation work lands on its path.
+ */
+public final class AllocationBudget {
+  /**
+   * {@code Drive.periodic}, including the modules. Mostly the two pose estimators, which each copy
+   * the module positions into their history for every odometry sample.
+   */
+  public static final long drive = 16 * 1024;
+
+  /** {@code Module.periodic}, all four modules together. */
+  public static final long modules = 1024;
+
+  /**
+   * {@code Drive.followTrajectory}, then {@code Drive.runVelocity} with other speeds, like a
+   * trajectory and then the joysticks. Only new module headings while moving, and a flipped one
+   * whenever a module optimizes its setpoint.
+   */
+  public static final long trajectoryFollowing = 512;
+
+  public static final long bobotState = 8 * 1024;
+
+  /** {@code Vision.periodic}, gathering every camera's inputs into the aggregate logs. */
+  public static final long vision = 8 * 1024;
+
+  /** Every roller subsystem together, which shouldn't allocate at all. */
+  public static final long rollers = 256;
+
+  /** {@code TeleopInput.update}, which shouldn't allocate at all. */
+  public static final long teleopInput = 256;
+
+  /** Loops before measuring, so class loading and the JIT don't count. */
+  private static final int warmupLoops = 20_000;
+
+  private static final int measuredLoops = 2_000;
+
+  private AllocationBudget() {}
+
+  /** Runs one loop after another, and returns how many bytes each allocated on average. */
+  public static long measureBytesPerLoop(Runnable loop) {
+    com.sun.management.ThreadMXBean threadBean =
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            ? bean
+            : null;
+    assumeTrue(
+        threadBean != null && threadBean.isThreadAllocatedMemorySupported(),
+        "This JVM can't measure allocated bytes per thread");
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+    long threadId = Thread.currentThread().getId();
+
+    for (int i = 0; i < warmupLoops; i++) {
+      loop.run();
+    }
+
+    long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < measuredLoops; i++) {
+      loop.run();
+    }
+    return (threadBean.getThreadAllocatedBytes(threadId) - startBytes) / measuredLoops;
+  }
+
+  public static void assertWithinBudget(String name, long budgetBytes, Runnable loop) {
+    long bytesPerLoop = measureBytesPerLoop(loop);
+    assertTrue(
+        bytesPerLoop <= budgetBytes,
+        String.format(
+            "%s allocates %d bytes per loop, over its %d byte budget",
+            name, bytesPerLoop, budgetBytes));
+  }
+}
@@ -0,0 +1,32 @@
+package frc.robot.util;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Allocation budget for {@link TeleopInput}, with both sticks held off center. */
+public class TeleopInputAllocationTest {
+  @BeforeAll
+  public static void setupHAL() {
+    HAL.initialize(500, 0);
+  }
+
+  @Test
+  public void update() {
+    XboxControllerSim controllerSim = new XboxControllerSim(0);
+    DriverStationSim.setJoystickAxisCount(0, 6);
+    controllerSim.setLeftX(0.6);
+    controllerSim.setLeftY(-0.8);
+    controllerSim.setRightX(0.4);
+    DriverStationSim.notifyNewData();
+
+    TeleopInput teleopInput = new TeleopInput(new CommandXboxController(0));
+    teleopInput.reset();
+
+    AllocationBudget.assertWithinBudget(
+        "TeleopInput.update", AllocationBudget.teleopInput, teleopInput::update);
+  }
+}